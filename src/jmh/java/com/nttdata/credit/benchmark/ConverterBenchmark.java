@@ -0,0 +1,74 @@
+package com.nttdata.credit.benchmark;
+
+import com.nttdata.credit.model.entity.Credit;
+import com.nttdata.credit.model.enums.TypeCredit;
+import com.nttdata.credit.model.request.CreditRequest;
+import com.nttdata.credit.model.response.BalanceResponse;
+import com.nttdata.credit.model.response.CreditResponse;
+import com.nttdata.credit.util.BalanceConverter;
+import com.nttdata.credit.util.CreditConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the converters between requests, entities and responses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConverterBenchmark {
+    private CreditRequest request;
+    private Credit credit;
+
+    @Setup
+    public void setUp() {
+        request = new CreditRequest(TypeCredit.PERSONAL, 1000, 5, new Date(), new Date(), 1000,
+                InMemoryRepositories.CLIENT_ID, null);
+        credit = InMemoryRepositories.credits(1).get("0");
+    }
+
+    @Benchmark
+    public Credit toCredit() {
+        return CreditConverter.toCredit(request);
+    }
+
+    @Benchmark
+    public CreditResponse toCreditResponse() {
+        return CreditConverter.toCreditResponse(credit);
+    }
+
+    @Benchmark
+    public BalanceResponse toBalanceResponse(ClientCredits state) {
+        return BalanceConverter.toBalanceResponse(state.credits);
+    }
+
+    @State(Scope.Benchmark)
+    public static class ClientCredits {
+        @Param({"1", "10", "100"})
+        private int count;
+
+        private List<Credit> credits;
+
+        @Setup
+        public void setUp() {
+            credits = new ArrayList<>(InMemoryRepositories.credits(count).values());
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.nttdata.credit.benchmark;
+
+import com.nttdata.credit.model.entity.Credit;
+import com.nttdata.credit.model.request.PaymentRequest;
+import com.nttdata.credit.model.response.BalanceResponse;
+import com.nttdata.credit.model.response.CreditResponse;
+import com.nttdata.credit.model.response.PaymentResponse;
+import com.nttdata.credit.service.CreditService;
+import com.nttdata.credit.service.impl.CreditReadCache;
+import com.nttdata.credit.service.impl.CreditServiceImpl;
+import io.github.resilience4j.circuitbreaker.autoconfigure.CircuitBreakerAutoConfiguration;
+import io.github.resilience4j.timelimiter.autoconfigure.TimeLimiterAutoConfiguration;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end cost of the {@link CreditServiceImpl} Reactor pipelines against in-memory
+ * repositories, called directly or through the resilience4j
+ * {@code @CircuitBreaker}/{@code @TimeLimiter} proxies the application uses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CreditServiceBenchmark {
+    private static final int CREDITS = 100;
+
+    @Param({"plain", "resilience4j"})
+    private String aspects;
+
+    private AnnotationConfigApplicationContext context;
+    private CreditService creditService;
+    private PaymentRequest paymentRequest;
+
+    @Setup
+    public void setUp() {
+        Map<String, Credit> credits = InMemoryRepositories.credits(CREDITS);
+        paymentRequest = new PaymentRequest(1);
+        if ("plain".equals(aspects)) {
+            creditService = newCreditService(credits);
+            return;
+        }
+        context = new AnnotationConfigApplicationContext();
+        context.register(ResilienceConfiguration.class);
+        context.registerBean(CreditServiceImpl.class, () -> newCreditService(credits));
+        context.refresh();
+        creditService = context.getBean(CreditService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public CreditResponse getCreditById() {
+        return creditService.getCreditById("0").block();
+    }
+
+    @Benchmark
+    public List<CreditResponse> getAllCredits() {
+        return creditService.getAllCredits().collectList().block();
+    }
+
+    @Benchmark
+    public BalanceResponse getBalanceByClientId() {
+        return creditService.getBalanceByClientId(InMemoryRepositories.CLIENT_ID).block();
+    }
+
+    @Benchmark
+    public PaymentResponse payByCreditId() {
+        return creditService.payByCreditId("0", paymentRequest).block();
+    }
+
+    private static CreditServiceImpl newCreditService(Map<String, Credit> credits) {
+        return new CreditServiceImpl(InMemoryRepositories.creditRespository(credits),
+                InMemoryRepositories.paymentRepository(), null, null, null,
+                new CreditReadCache(new SimpleMeterRegistry(), false, 0, Duration.ZERO));
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @EnableAspectJAutoProxy
+    @ImportAutoConfiguration({CircuitBreakerAutoConfiguration.class, TimeLimiterAutoConfiguration.class})
+    static class ResilienceConfiguration {
+    }
+}
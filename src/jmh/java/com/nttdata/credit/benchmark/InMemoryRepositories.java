@@ -0,0 +1,79 @@
+package com.nttdata.credit.benchmark;
+
+import com.nttdata.credit.model.entity.Credit;
+import com.nttdata.credit.model.enums.TypeClient;
+import com.nttdata.credit.model.enums.TypeCredit;
+import com.nttdata.credit.repository.CreditRespository;
+import com.nttdata.credit.repository.PaymentRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Proxy;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * In-memory stand-ins for the repositories, answering only the methods the benchmarked
+ * pipelines call, so the benchmarks measure the service and not the database.
+ */
+final class InMemoryRepositories {
+    static final String CLIENT_ID = "client";
+
+    private InMemoryRepositories() {
+    }
+
+    /**
+     * Credits of a single client, with IDs {@code 0} to {@code count - 1}.
+     */
+    static Map<String, Credit> credits(int count) {
+        Map<String, Credit> credits = new ConcurrentHashMap<>();
+        for (int i = 0; i < count; i++) {
+            String id = String.valueOf(i);
+            credits.put(id, new Credit(id, TypeCredit.PERSONAL, 1000, 5, new Date(), new Date(), 1_000_000_000,
+                    CLIENT_ID, TypeClient.PERSONAL, 0L));
+        }
+        return credits;
+    }
+
+    static CreditRespository creditRespository(Map<String, Credit> credits) {
+        Map<String, Function<Object[], Object>> methods = new HashMap<>();
+        methods.put("findAll", args -> Flux.fromIterable(credits.values()));
+        methods.put("findById", args -> Mono.justOrEmpty(credits.get((String) args[0])));
+        methods.put("existsById", args -> Mono.just(credits.containsKey((String) args[0])));
+        methods.put("findByClientId", args -> byClient(credits, (String) args[0]));
+        methods.put("findBalancesByClientId", args -> byClient(credits, (String) args[0]));
+        methods.put("decrementBalance", args -> Mono.justOrEmpty(credits.computeIfPresent((String) args[0],
+                (id, credit) -> {
+                    credit.setOutstandingBalance(credit.getOutstandingBalance() - (double) args[1]);
+                    return credit;
+                })));
+        return stub(CreditRespository.class, methods);
+    }
+
+    static PaymentRepository paymentRepository() {
+        Map<String, Function<Object[], Object>> methods = new HashMap<>();
+        methods.put("save", args -> Mono.just(args[0]));
+        return stub(PaymentRepository.class, methods);
+    }
+
+    private static Flux<Credit> byClient(Map<String, Credit> credits, String clientId) {
+        return Flux.fromIterable(credits.values()).filter(credit -> clientId.equals(credit.getClientId()));
+    }
+
+    private static <T> T stub(Class<T> type, Map<String, Function<Object[], Object>> methods) {
+        Object stub = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return method.getName().equals("equals") ? proxy == args[0] : method.invoke(methods, args);
+            }
+            Function<Object[], Object> handler = methods.get(method.getName());
+            if (handler == null) {
+                throw new UnsupportedOperationException(method.getName());
+            }
+            return handler.apply(args);
+        });
+        return type.cast(stub);
+    }
+}
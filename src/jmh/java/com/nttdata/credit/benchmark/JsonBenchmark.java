@@ -0,0 +1,159 @@
+package com.nttdata.credit.benchmark;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.nttdata.credit.codec.PooledJackson2JsonEncoder;
+import com.nttdata.credit.model.entity.Credit;
+import com.nttdata.credit.model.entity.Payment;
+import com.nttdata.credit.model.enums.TypeCredit;
+import com.nttdata.credit.model.request.CreditRequest;
+import com.nttdata.credit.model.response.CreditResponse;
+import com.nttdata.credit.util.CreditConverter;
+import com.nttdata.credit.util.CreditTypeDeserializer;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the JSON mapping done by the controllers: reading the credit type with
+ * {@link CreditTypeDeserializer} against the former {@code valueOf(toUpperCase())}, writing a
+ * {@link CreditResponse} with a growing number of payments with and without Blackbird, and
+ * encoding a list of them into pooled Netty buffers with the default and the pooled encoder.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+    private static final String CREDIT_REQUEST = "{\"type\":\"personal\",\"amount\":1000,\"interestRate\":5,"
+            + "\"startDate\":1704067200000,\"endDate\":1735689600000,"
+            + "\"outstandingBalance\":1000,\"clientId\":\"client\"}";
+
+    private static final ResolvableType RESPONSE_LIST =
+            ResolvableType.forClassWithGenerics(List.class, CreditResponse.class);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final CreditTypeDeserializer typeDeserializer = new CreditTypeDeserializer();
+    private ObjectReader requestReader;
+
+    @Setup
+    public void setUp() {
+        requestReader = objectMapper.readerFor(CreditRequest.class);
+    }
+
+    @Benchmark
+    public TypeCredit deserializeType() throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser("\"personal\"")) {
+            parser.nextToken();
+            return typeDeserializer.deserialize(parser, objectMapper.getDeserializationContext());
+        }
+    }
+
+    @Benchmark
+    public TypeCredit deserializeTypeValueOf() throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser("\"personal\"")) {
+            parser.nextToken();
+            return TypeCredit.valueOf(parser.getText().toUpperCase());
+        }
+    }
+
+    @Benchmark
+    public CreditRequest readCreditRequest() throws IOException {
+        return requestReader.readValue(CREDIT_REQUEST);
+    }
+
+    @Benchmark
+    public byte[] writeCreditResponse(ResponseState state) throws IOException {
+        return state.responseWriter.writeValueAsBytes(state.response);
+    }
+
+    @Benchmark
+    public int encodeCreditResponses(ResponseState state) {
+        return encode(state.defaultEncoder, state);
+    }
+
+    @Benchmark
+    public int encodeCreditResponsesPooled(ResponseState state) {
+        return encode(state.pooledEncoder, state);
+    }
+
+    private static int encode(Jackson2JsonEncoder encoder, ResponseState state) {
+        DataBuffer buffer = encoder.encodeValue(state.responses, state.bufferFactory, RESPONSE_LIST,
+                MediaType.APPLICATION_JSON, Collections.emptyMap());
+        int size = buffer.readableByteCount();
+        DataBufferUtils.release(buffer);
+        return size;
+    }
+
+    @State(Scope.Benchmark)
+    public static class ResponseState {
+        private static final int CREDITS = 20;
+
+        @Param({"0", "100", "10000"})
+        private int payments;
+        @Param({"false", "true"})
+        private boolean blackbird;
+
+        private ObjectWriter responseWriter;
+        private CreditResponse response;
+        private List<CreditResponse> responses;
+        private Jackson2JsonEncoder defaultEncoder;
+        private Jackson2JsonEncoder pooledEncoder;
+        private final NettyDataBufferFactory bufferFactory = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+
+        @Setup
+        public void setUp() {
+            ObjectMapper mapper = new ObjectMapper();
+            if (blackbird) {
+                mapper.registerModule(new BlackbirdModule());
+            }
+            responseWriter = mapper.writerFor(CreditResponse.class);
+            defaultEncoder = new Jackson2JsonEncoder(mapper);
+            pooledEncoder = new PooledJackson2JsonEncoder(mapper, 4096);
+            responses = new ArrayList<>(CREDITS);
+            for (Credit credit : InMemoryRepositories.credits(CREDITS).values()) {
+                CreditResponse creditResponse = CreditConverter.toCreditResponse(credit);
+                creditResponse.setPayments(payments(creditResponse.getId(), payments / CREDITS));
+                responses.add(creditResponse);
+            }
+            response = CreditConverter.toCreditResponse(InMemoryRepositories.credits(1).get("0"));
+            response.setPayments(payments(response.getId(), payments));
+        }
+
+        private static List<Payment> payments(String creditId, int count) {
+            List<Payment> creditPayments = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                creditPayments.add(new Payment(UUID.randomUUID().toString(), creditId, 100, new Date(), "new Pay"));
+            }
+            return creditPayments;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.nttdata.credit.codec;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.exc.InvalidDefinitionException;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.CodecException;
+import org.springframework.core.codec.EncodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.util.MimeType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+
+/**
+ * JSON encoder that writes each value straight into a buffer of the response factory,
+ * which on Netty is a pooled direct buffer. The default encoder writes into a byte array
+ * first and then copies it into the buffer, so large responses were allocated twice.
+ * Values with a JSON view or filters are left to the default encoder.
+ */
+public class PooledJackson2JsonEncoder extends Jackson2JsonEncoder {
+    private final int initialBufferSize;
+
+    public PooledJackson2JsonEncoder(ObjectMapper objectMapper, int initialBufferSize) {
+        super(objectMapper);
+        this.initialBufferSize = initialBufferSize;
+    }
+
+    @Override
+    public DataBuffer encodeValue(Object value, DataBufferFactory bufferFactory, ResolvableType valueType
+            , MimeType mimeType, Map<String, Object> hints) {
+        ObjectMapper mapper = selectObjectMapper(valueType, mimeType);
+        if (mapper == null || value instanceof MappingJacksonValue
+                || (hints != null && hints.containsKey(JSON_VIEW_HINT))) {
+            return super.encodeValue(value, bufferFactory, valueType, mimeType, hints);
+        }
+        DataBuffer buffer = bufferFactory.allocateBuffer(initialBufferSize);
+        boolean release = true;
+        try (OutputStream out = buffer.asOutputStream();
+             JsonGenerator generator = mapper.getFactory().createGenerator(out, getJsonEncoding(mimeType))) {
+            writer(mapper, valueType, mimeType, hints).writeValue(generator, value);
+            generator.flush();
+            release = false;
+        } catch (InvalidDefinitionException e) {
+            throw new CodecException("Type definition error: " + e.getType(), e);
+        } catch (JsonProcessingException e) {
+            throw new EncodingException("JSON encoding error: " + e.getOriginalMessage(), e);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unexpected I/O error while writing to data buffer", e);
+        } finally {
+            if (release) {
+                DataBufferUtils.release(buffer);
+            }
+        }
+        return buffer;
+    }
+
+    private ObjectWriter writer(ObjectMapper mapper, ResolvableType valueType, MimeType mimeType
+            , Map<String, Object> hints) {
+        JavaType javaType = getJavaType(valueType.getType(), null);
+        ObjectWriter writer = javaType.isContainerType() ? mapper.writerFor(javaType) : mapper.writer();
+        return customizeWriter(writer, mimeType, valueType, hints);
+    }
+}
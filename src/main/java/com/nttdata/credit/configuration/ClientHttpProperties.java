@@ -0,0 +1,47 @@
+package com.nttdata.credit.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import reactor.netty.http.HttpProtocol;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Connection pool, protocol and timeouts of the HTTP client used to call the client service,
+ * bound from {@code credit.client.http}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "credit.client.http")
+public class ClientHttpProperties {
+    /**
+     * HTTP versions to offer. H2 needs an https URL; use H2C for HTTP/2 over plain http.
+     */
+    private List<HttpProtocol> protocols = new ArrayList<>(List.of(HttpProtocol.HTTP11));
+    private boolean compression = true;
+    private Duration connectTimeout = Duration.ofSeconds(1);
+    private Duration responseTimeout = Duration.ofSeconds(2);
+    private boolean keepAlive = true;
+    private final Pool pool = new Pool();
+
+    @Getter
+    @Setter
+    public static class Pool {
+        private int maxConnections = 100;
+        /**
+         * Requests allowed to wait for a connection when all of them are busy.
+         */
+        private int pendingAcquireMaxCount = 200;
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(1);
+        private Duration maxIdleTime = Duration.ofSeconds(30);
+        private Duration maxLifeTime = Duration.ofMinutes(5);
+        /**
+         * Interval of the background eviction of idle and expired connections.
+         */
+        private Duration evictionInterval = Duration.ofSeconds(30);
+        private boolean metrics = true;
+    }
+}
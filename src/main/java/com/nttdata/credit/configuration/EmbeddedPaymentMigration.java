@@ -0,0 +1,81 @@
+package com.nttdata.credit.configuration;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.client.model.InsertManyOptions;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Moves the payments still embedded in credit documents into the payment collection.
+ * Payment IDs are derived from the credit ID and the array position, so an interrupted
+ * run can be restarted without duplicating payments.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "credit.payments.migrate-embedded", havingValue = "true")
+public class EmbeddedPaymentMigration implements ApplicationRunner {
+    private static final String PAYMENTS = "payments";
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Query query = Query.query(Criteria.where(PAYMENTS).exists(true));
+        query.fields().include(PAYMENTS);
+        Long migrated = mongoTemplate.find(query, Document.class, "credit")
+                .concatMap(this::migrate)
+                .count()
+                .block();
+        log.info("Migrated embedded payments of {} credits", migrated);
+    }
+
+    private Mono<Void> migrate(Document credit) {
+        String creditId = String.valueOf(credit.get("_id"));
+        List<Document> payments = toPayments(creditId, credit.getList(PAYMENTS, Document.class));
+        Mono<Void> insert = payments.isEmpty()
+                ? Mono.empty()
+                : Flux.from(mongoTemplate.getCollection("payment")
+                        .flatMapMany(collection -> collection.insertMany(payments, new InsertManyOptions().ordered(false))))
+                .then()
+                .onErrorResume(MongoBulkWriteException.class, this::onlyDuplicates);
+        return insert.then(mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(credit.get("_id"))),
+                new Update().unset(PAYMENTS), "credit").then());
+    }
+
+    private List<Document> toPayments(String creditId, List<Document> embedded) {
+        List<Document> payments = new ArrayList<>();
+        if (embedded == null) {
+            return payments;
+        }
+        for (int i = 0; i < embedded.size(); i++) {
+            Document payment = embedded.get(i);
+            payments.add(new Document("_id", creditId + ":" + i)
+                    .append("creditId", creditId)
+                    .append("amount", payment.get("amount"))
+                    .append("date", payment.get("date"))
+                    .append("description", payment.get("description")));
+        }
+        return payments;
+    }
+
+    private Mono<Void> onlyDuplicates(MongoBulkWriteException e) {
+        boolean duplicatesOnly = e.getWriteErrors().stream().allMatch(error -> error.getCode() == DUPLICATE_KEY);
+        return duplicatesOnly ? Mono.empty() : Mono.error(e);
+    }
+}
@@ -0,0 +1,71 @@
+package com.nttdata.credit.configuration;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.nttdata.credit.codec.CollectingJackson2CborEncoder;
+import com.nttdata.credit.codec.PooledJackson2JsonEncoder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * JSON mapping of the API and of the calls to the client service, and the CBOR and Smile
+ * formats offered to the other services through {@code Accept}.
+ */
+@Configuration
+public class JacksonConfig {
+    public static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+
+    /**
+     * Registered by Spring Boot in the application {@link ObjectMapper}. Replaces the reflective
+     * getters, setters and constructors with generated lambdas.
+     */
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    /**
+     * Runs after the Spring Boot customizer, so it replaces its JSON encoder. Also offers
+     * {@code application/cbor} and {@code application/x-jackson-smile}, with the same modules as JSON;
+     * dates are written as epoch milliseconds, which these formats store as one number.
+     * Custom writers are tried before the default ones, so the JSON encoder is registered again
+     * ahead of CBOR to stay the default when {@code Accept} allows any type.
+     */
+    @Bean
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public CodecCustomizer creditCodecCustomizer(ObjectMapper objectMapper, Jackson2ObjectMapperBuilder builder
+            , @Value("${credit.codec.initial-buffer-size:4096}") int initialBufferSize) {
+        PooledJackson2JsonEncoder jsonEncoder = new PooledJackson2JsonEncoder(objectMapper, initialBufferSize);
+        ObjectMapper cborMapper = binaryMapper(builder, new CBORFactory());
+        ObjectMapper smileMapper = binaryMapper(builder, new SmileFactory());
+        return configurer -> {
+            configurer.defaultCodecs().jackson2JsonEncoder(jsonEncoder);
+            configurer.defaultCodecs().jackson2SmileEncoder(new Jackson2SmileEncoder(smileMapper, SMILE));
+            configurer.defaultCodecs().jackson2SmileDecoder(new Jackson2SmileDecoder(smileMapper, SMILE));
+            configurer.customCodecs().registerWithDefaultConfig(jsonEncoder);
+            configurer.customCodecs().registerWithDefaultConfig(new CollectingJackson2CborEncoder(cborMapper));
+            configurer.customCodecs().registerWithDefaultConfig(new Jackson2CborDecoder(cborMapper
+                    , MediaType.APPLICATION_CBOR));
+        };
+    }
+
+    private static ObjectMapper binaryMapper(Jackson2ObjectMapperBuilder builder, JsonFactory factory) {
+        return builder.factory(factory)
+                .featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+}
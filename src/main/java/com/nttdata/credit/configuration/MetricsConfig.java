@@ -0,0 +1,46 @@
+package com.nttdata.credit.configuration;
+
+import com.nttdata.credit.metrics.MongoCommandMetrics;
+import com.nttdata.credit.metrics.OperationMetrics;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Set;
+
+/**
+ * Metrics beyond the ones Spring Boot and resilience4j register on their own: document
+ * counts of the MongoDB commands, and latency histograms with percentiles for the
+ * service operations, the MongoDB commands and the client-service calls.
+ */
+@Configuration
+public class MetricsConfig {
+    private static final Set<String> LATENCY_METRICS = Set.of(OperationMetrics.METRIC_NAME,
+            "mongodb.driver.commands", "http.client.requests");
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoCommandMetricsCustomizer(MeterRegistry meterRegistry) {
+        return builder -> builder.addCommandListener(new MongoCommandMetrics(meterRegistry));
+    }
+
+    @Bean
+    public MeterFilter latencyHistogramFilter() {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (!LATENCY_METRICS.contains(id.getName())) {
+                    return config;
+                }
+                return DistributionStatisticConfig.builder()
+                        .percentilesHistogram(true)
+                        .percentiles(0.5, 0.95, 0.99)
+                        .build()
+                        .merge(config);
+            }
+        };
+    }
+}
@@ -0,0 +1,48 @@
+package com.nttdata.credit.configuration;
+
+import com.nttdata.credit.model.exception.CreditException;
+import com.nttdata.credit.resilience.AdaptiveConcurrencyLimiter;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.common.circuitbreaker.configuration.CircuitBreakerConfigCustomizer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class ResilienceConfig {
+    /**
+     * Business errors such as a missing credit are answers, not failures of the service,
+     * so they must not open the circuit. resilience4j only customizes declared instances,
+     * which is why bootstrap.properties declares the credit instance.
+     */
+    @Bean
+    public CircuitBreakerConfigCustomizer creditCircuitBreakerCustomizer() {
+        return CircuitBreakerConfigCustomizer.of("credit", builder -> builder.ignoreExceptions(CreditException.class));
+    }
+
+    /**
+     * Hard cap on concurrent client-service calls, sized with the
+     * {@code resilience4j.bulkhead.instances.client} properties.
+     */
+    @Bean
+    public Bulkhead clientBulkhead(BulkheadRegistry bulkheadRegistry) {
+        return bulkheadRegistry.bulkhead("client");
+    }
+
+    /**
+     * Concurrency limit of the client-service calls that adapts to their latency, below the bulkhead cap.
+     */
+    @Bean
+    public AdaptiveConcurrencyLimiter clientConcurrencyLimiter(MeterRegistry meterRegistry
+            , @Value("${credit.client.limit.initial:20}") int initialLimit
+            , @Value("${credit.client.limit.min:4}") int minLimit
+            , @Value("${credit.client.limit.max:64}") int maxLimit
+            , @Value("${credit.client.limit.latency-threshold:250ms}") Duration latencyThreshold) {
+        return new AdaptiveConcurrencyLimiter("client", initialLimit, minLimit, maxLimit, latencyThreshold,
+                meterRegistry);
+    }
+}
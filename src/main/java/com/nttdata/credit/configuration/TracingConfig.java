@@ -0,0 +1,42 @@
+package com.nttdata.credit.configuration;
+
+import com.nttdata.credit.tracing.FileSpanExporter;
+import com.nttdata.credit.tracing.NoopSpanExporter;
+import com.nttdata.credit.tracing.ServerTimingFilter;
+import com.nttdata.credit.tracing.SpanExporter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Per-request stage timings. The {@code Server-Timing} header can be turned off with
+ * {@code credit.tracing.server-timing.enabled=false}, and {@code credit.tracing.exporter=file}
+ * also writes the stages as spans to {@code credit.tracing.file}.
+ */
+@Configuration
+public class TracingConfig {
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "credit.tracing.exporter", havingValue = "file")
+    public FileSpanExporter fileSpanExporter(@Value("${credit.tracing.file:logs/spans.jsonl}") Path file
+            , @Value("${credit.tracing.queue-size:10000}") int queueSize) throws IOException {
+        return new FileSpanExporter(file, queueSize);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(SpanExporter.class)
+    public SpanExporter noopSpanExporter() {
+        return new NoopSpanExporter();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "credit.tracing.server-timing.enabled", matchIfMissing = true)
+    public ServerTimingFilter serverTimingFilter(SpanExporter spanExporter) {
+        return new ServerTimingFilter(spanExporter);
+    }
+}
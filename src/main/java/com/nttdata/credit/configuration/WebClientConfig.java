@@ -1,19 +1,59 @@
 package com.nttdata.credit.configuration;
 
+import io.netty.channel.ChannelOption;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 @Configuration
+@EnableConfigurationProperties(ClientHttpProperties.class)
 public class WebClientConfig {
     @Value("${server.url.client}")
     private String clientUrl;
+    /**
+     * Built from the Spring Boot builder so the calls are recorded as {@code http.client.requests}.
+     */
     @Bean
-    public WebClient webClient() {
-        return WebClient.builder()
+    public WebClient webClient(WebClient.Builder webClientBuilder, ClientHttpProperties properties
+            , ConnectionProvider clientConnectionProvider) {
+        return webClientBuilder
                 .baseUrl(clientUrl)
-                .defaultHeader("Content-Type", "application/json")
+                .clientConnector(new ReactorClientHttpConnector(httpClient(properties, clientConnectionProvider)))
+                .defaultHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
                 .build();
     }
+
+    /**
+     * Pool metrics are published as {@code reactor.netty.connection.provider.*} with the name {@code client}.
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider clientConnectionProvider(ClientHttpProperties properties) {
+        ClientHttpProperties.Pool pool = properties.getPool();
+        return ConnectionProvider.builder("client")
+                .maxConnections(pool.getMaxConnections())
+                .pendingAcquireMaxCount(pool.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(pool.getPendingAcquireTimeout())
+                .maxIdleTime(pool.getMaxIdleTime())
+                .maxLifeTime(pool.getMaxLifeTime())
+                .evictInBackground(pool.getEvictionInterval())
+                .metrics(pool.isMetrics())
+                .build();
+    }
+
+    private static HttpClient httpClient(ClientHttpProperties properties, ConnectionProvider connectionProvider) {
+        return HttpClient.create(connectionProvider)
+                .protocol(properties.getProtocols().toArray(new HttpProtocol[0]))
+                .compress(properties.isCompression())
+                .keepAlive(properties.isKeepAlive())
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .responseTimeout(properties.getResponseTimeout());
+    }
 }
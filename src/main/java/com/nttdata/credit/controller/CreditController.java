@@ -1,16 +1,33 @@
 package com.nttdata.credit.controller;
 
+import com.nttdata.credit.logging.LogContext;
+import com.nttdata.credit.model.request.BulkPaymentRequest;
+import com.nttdata.credit.model.request.CreditPatchRequest;
 import com.nttdata.credit.model.request.CreditRequest;
 import com.nttdata.credit.model.request.PaymentRequest;
 import com.nttdata.credit.model.response.BalanceResponse;
+import com.nttdata.credit.model.response.BulkCreditResponse;
+import com.nttdata.credit.model.response.BulkPaymentResponse;
+import com.nttdata.credit.model.response.CreditPageResponse;
 import com.nttdata.credit.model.response.CreditResponse;
+import com.nttdata.credit.model.response.CreditSummary;
 import com.nttdata.credit.model.response.PaymentResponse;
 import com.nttdata.credit.service.CreditService;
+import com.nttdata.credit.util.ETags;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Date;
+import java.util.List;
+import java.util.function.Supplier;
+
 @RestController
 @RequestMapping("/api/v1/credit")
 @RequiredArgsConstructor
@@ -23,9 +40,34 @@ public class CreditController  {
         return creditService.getAllCredits();
     }
 
+    @GetMapping(params = "view=summary"
+            , produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<CreditSummary> getAllCreditSummaries() {
+        return creditService.getAllCreditSummaries();
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<CreditResponse> streamAllCredits() {
+        return creditService.streamAllCredits();
+    }
+
+    @GetMapping("/page")
+    public Mono<CreditPageResponse> getCreditsPage(@RequestParam(value = "token", required = false) String token
+            , @RequestParam(value = "size", defaultValue = "${credit.page.default-size:50}") int size) {
+        return creditService.getCreditsPage(token, size);
+    }
+
     @GetMapping("/{id}")
-    public Mono<CreditResponse> getCreditById(@PathVariable String id) {
-        return creditService.getCreditById(id);
+    public Mono<ResponseEntity<CreditResponse>> getCreditById(@PathVariable String id
+            , @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Mono<ResponseEntity<CreditResponse>> credit = Mono.defer(() -> creditService.getCreditById(id)
+                .map(CreditController::withETag));
+        Mono<ResponseEntity<CreditResponse>> response = ifNoneMatch == null ? credit
+                : creditService.getCreditETag(id)
+                        .filter(eTag -> ETags.matches(ifNoneMatch, eTag))
+                        .map(CreditController::<CreditResponse>notModified)
+                        .switchIfEmpty(credit);
+        return response.contextWrite(LogContext.creditId(id));
     }
 
     @PostMapping
@@ -34,30 +76,95 @@ public class CreditController  {
         return creditService.createCredit(creditRequest ,authorizationHeader);
     }
 
+    @PostMapping("/bulk")
+    public Flux<BulkCreditResponse> createCredits(@RequestBody List<CreditRequest> creditRequests
+            , @RequestHeader("Authorization") String authorizationHeader) {
+        return creditService.createCredits(creditRequests, authorizationHeader);
+    }
+
     @PutMapping("/{id}")
-    public Mono<CreditResponse> updateCredit(@PathVariable String id, @RequestBody CreditRequest creditRequest) {
-        return creditService.updateCredit(id, creditRequest);
+    public Mono<ResponseEntity<CreditResponse>> updateCredit(@PathVariable String id
+            , @RequestBody CreditRequest creditRequest
+            , @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return creditService.updateCredit(id, creditRequest, ETags.toVersion(ifMatch))
+                .map(CreditController::withETag)
+                .contextWrite(LogContext.creditId(id));
+    }
+
+    @PatchMapping("/{id}")
+    public Mono<ResponseEntity<CreditResponse>> patchCredit(@PathVariable String id
+            , @RequestBody CreditPatchRequest patch
+            , @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return creditService.patchCredit(id, patch, ETags.toVersion(ifMatch))
+                .map(CreditController::withETag)
+                .contextWrite(LogContext.creditId(id));
     }
 
     @DeleteMapping("/{id}")
-    public Mono<Void> deleteCredit(@PathVariable String id) {
-        return creditService.deleteCredit(id);
+    public Mono<Void> deleteCredit(@PathVariable String id
+            , @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return creditService.deleteCredit(id, ETags.toVersion(ifMatch))
+                .contextWrite(LogContext.creditId(id));
     }
 
     @GetMapping("/{id_client}/balances")
-    public Flux<BalanceResponse> getBalanceAccount(@PathVariable("id_client") String idClient) {
-        return creditService.getBalanceByClientId(idClient);
+    public Mono<ResponseEntity<BalanceResponse>> getBalanceAccount(@PathVariable("id_client") String idClient
+            , @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return conditionalGet(creditService.getBalanceETag(idClient), ifNoneMatch
+                , () -> creditService.getBalanceByClientId(idClient));
     }
     @PostMapping("/{id}/payment")
     public Mono<PaymentResponse> createPayment(@PathVariable("id") String id,@RequestBody PaymentRequest paymentRequest) {
-        return creditService.payByCreditId(id,paymentRequest);
+        return creditService.payByCreditId(id,paymentRequest)
+                .contextWrite(LogContext.creditId(id));
+    }
+    @PostMapping(value = "/payments/bulk"
+            , consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE}
+            , produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<BulkPaymentResponse> createPayments(@RequestBody Flux<BulkPaymentRequest> paymentRequests) {
+        return creditService.payInBulk(paymentRequests);
     }
     @GetMapping("/{id}/payments")
-    public Flux<PaymentResponse> getAllPaymentByCreditId(@PathVariable String id) {
-        return creditService.getAllPaysByCredirId(id);
+    public Mono<ResponseEntity<Flux<PaymentResponse>>> getAllPaymentByCreditId(@PathVariable String id
+            , @RequestParam(value = "after", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date after
+            , @RequestParam(value = "afterId", required = false) String afterId
+            , @RequestParam(value = "limit", defaultValue = "100") int limit
+            , @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return conditionalGet(creditService.getPaymentsETag(id), ifNoneMatch
+                , () -> Mono.just(creditService.getAllPaysByCredirId(id, after, afterId, limit)
+                        .contextWrite(LogContext.creditId(id))))
+                .contextWrite(LogContext.creditId(id));
     }
     @GetMapping("/client/{id}")
     public Flux<CreditResponse> getCreditByClientId(@PathVariable String id) {
         return creditService.getCreditByClientId(id);
     }
+    @GetMapping(value = "/client/{id}", params = "view=summary")
+    public Flux<CreditSummary> getCreditSummariesByClientId(@PathVariable String id) {
+        return creditService.getCreditSummariesByClientId(id);
+    }
+
+    private static ResponseEntity<CreditResponse> withETag(CreditResponse credit) {
+        return ResponseEntity.ok().eTag(ETags.of(credit.getVersion())).varyBy(HttpHeaders.ACCEPT).body(credit);
+    }
+
+    private static <T> ResponseEntity<T> notModified(String eTag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).varyBy(HttpHeaders.ACCEPT).build();
+    }
+
+    /**
+     * Looks up the current ETag first, so the body is only read when {@code If-None-Match} does not match,
+     * and an ETag is never newer than the body it is sent with. Without an ETag the body is sent as is.
+     * The same ETag covers every media type, so responses vary by {@code Accept}.
+     */
+    private static <T> Mono<ResponseEntity<T>> conditionalGet(Mono<String> currentETag, String ifNoneMatch
+            , Supplier<Mono<T>> body) {
+        return currentETag
+                .flatMap(eTag -> ETags.matches(ifNoneMatch, eTag)
+                        ? Mono.just(CreditController.<T>notModified(eTag))
+                        : body.get().map(value -> ResponseEntity.ok().eTag(eTag)
+                                .varyBy(HttpHeaders.ACCEPT).body(value)))
+                .switchIfEmpty(Mono.defer(() -> body.get()
+                        .map(value -> ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(value))));
+    }
 }
@@ -0,0 +1,87 @@
+package com.nttdata.credit.controller;
+
+import com.nttdata.credit.logging.LogContext;
+import com.nttdata.credit.model.request.BulkPaymentRequest;
+import com.nttdata.credit.model.request.PaymentRequest;
+import com.nttdata.credit.model.response.BalanceResponse;
+import com.nttdata.credit.model.response.BulkPaymentResponse;
+import com.nttdata.credit.model.response.CreditResponse;
+import com.nttdata.credit.model.response.PaymentResponse;
+import com.nttdata.credit.service.CreditService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * The credit operations over RSocket, for the other services, on top of the same {@link CreditService}
+ * as {@link CreditController}. Single reads and payments are request-response, listings are
+ * request-stream and bulk payments are a request-channel. Listings are only read as fast as the
+ * requester asks for them.
+ */
+@Controller
+@RequiredArgsConstructor
+public class CreditRSocketController {
+    /**
+     * Payments are streamed in pages of this size, each one read after the previous one was sent.
+     */
+    static final int PAYMENTS_PAGE_SIZE = 100;
+
+    private final CreditService creditService;
+
+    @MessageMapping("credit.{id}")
+    public Mono<CreditResponse> getCreditById(@DestinationVariable String id) {
+        return creditService.getCreditById(id)
+                .contextWrite(LogContext.creditId(id));
+    }
+
+    @MessageMapping("credit.balance.{idClient}")
+    public Mono<BalanceResponse> getBalanceByClientId(@DestinationVariable String idClient) {
+        return creditService.getBalanceByClientId(idClient);
+    }
+
+    @MessageMapping("credit.{id}.payment")
+    public Mono<PaymentResponse> createPayment(@DestinationVariable String id, PaymentRequest paymentRequest) {
+        return creditService.payByCreditId(id, paymentRequest)
+                .contextWrite(LogContext.creditId(id));
+    }
+
+    @MessageMapping("credits")
+    public Flux<CreditResponse> streamAllCredits() {
+        return creditService.streamAllCredits();
+    }
+
+    @MessageMapping("credits.client.{idClient}")
+    public Flux<CreditResponse> getCreditByClientId(@DestinationVariable String idClient) {
+        return creditService.getCreditByClientId(idClient);
+    }
+
+    @MessageMapping("credit.{id}.payments")
+    public Flux<PaymentResponse> getAllPaymentByCreditId(@DestinationVariable String id) {
+        return paymentsAfter(id, null, null)
+                .contextWrite(LogContext.creditId(id));
+    }
+
+    @MessageMapping("credit.payments.bulk")
+    public Flux<BulkPaymentResponse> createPayments(Flux<BulkPaymentRequest> paymentRequests) {
+        return creditService.payInBulk(paymentRequests);
+    }
+
+    private Flux<PaymentResponse> paymentsAfter(String id, Date after, String afterId) {
+        return creditService.getAllPaysByCredirId(id, after, afterId, PAYMENTS_PAGE_SIZE)
+                .collectList()
+                .flatMapMany(page -> page.size() < PAYMENTS_PAGE_SIZE
+                        ? Flux.fromIterable(page)
+                        : Flux.fromIterable(page).concatWith(Flux.defer(() -> nextPage(id, page))));
+    }
+
+    private Flux<PaymentResponse> nextPage(String id, List<PaymentResponse> page) {
+        PaymentResponse last = page.get(page.size() - 1);
+        return paymentsAfter(id, last.getDate(), last.getId());
+    }
+}
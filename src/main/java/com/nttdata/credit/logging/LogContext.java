@@ -0,0 +1,73 @@
+package com.nttdata.credit.logging;
+
+import org.slf4j.MDC;
+import reactor.core.publisher.Signal;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Carries the request ID and the credit ID in the Reactor {@link Context} and copies them to
+ * the MDC only around the code that logs, instead of on every operator and thread hop.
+ */
+public class LogContext {
+    public static final String REQUEST_ID = "requestId";
+    public static final String CREDIT_ID = "creditId";
+
+    public static Context requestId(String requestId) {
+        return Context.of(REQUEST_ID, requestId);
+    }
+
+    public static Context creditId(String creditId) {
+        return Context.of(CREDIT_ID, creditId);
+    }
+
+    /**
+     * Fills the MDC from the context until the returned scope is closed, which restores the previous values.
+     */
+    public static MdcScope open(ContextView context) {
+        MdcScope scope = new MdcScope(MDC.get(REQUEST_ID), MDC.get(CREDIT_ID));
+        put(REQUEST_ID, context.getOrDefault(REQUEST_ID, null));
+        put(CREDIT_ID, context.getOrDefault(CREDIT_ID, null));
+        return scope;
+    }
+
+    /**
+     * Logs the errors matching the filter with the MDC of the subscriber context, for use with {@code doOnEach}.
+     */
+    public static <T> Consumer<Signal<T>> onError(Predicate<Throwable> filter, Consumer<Throwable> logger) {
+        return signal -> {
+            if (signal.isOnError() && filter.test(signal.getThrowable())) {
+                try (MdcScope scope = open(signal.getContextView())) {
+                    logger.accept(signal.getThrowable());
+                }
+            }
+        };
+    }
+
+    private static void put(String key, String value) {
+        if (value == null) {
+            MDC.remove(key);
+        } else {
+            MDC.put(key, value);
+        }
+    }
+
+    public static final class MdcScope implements AutoCloseable {
+        private final String requestId;
+        private final String creditId;
+
+        private MdcScope(String requestId, String creditId) {
+            this.requestId = requestId;
+            this.creditId = creditId;
+        }
+
+        @Override
+        public void close() {
+            put(REQUEST_ID, requestId);
+            put(CREDIT_ID, creditId);
+        }
+    }
+}
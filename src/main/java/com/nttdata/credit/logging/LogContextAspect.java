@@ -0,0 +1,45 @@
+package com.nttdata.credit.logging;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+/**
+ * Defers every {@link com.nttdata.credit.service.CreditService} operation to subscription time
+ * and assembles it with the MDC of the subscriber context, so the logs written while the
+ * operation is built carry the request and credit IDs.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class LogContextAspect {
+
+    @Around("execution(* com.nttdata.credit.service.CreditService.*(..))")
+    public Object withLogContext(ProceedingJoinPoint joinPoint) throws Throwable {
+        Class<?> returnType = ((MethodSignature) joinPoint.getSignature()).getReturnType();
+        if (Mono.class.isAssignableFrom(returnType)) {
+            return Mono.deferContextual(context -> (Mono<?>) proceed(joinPoint, context));
+        }
+        if (Flux.class.isAssignableFrom(returnType)) {
+            return Flux.deferContextual(context -> (Flux<?>) proceed(joinPoint, context));
+        }
+        return joinPoint.proceed();
+    }
+
+    private static Object proceed(ProceedingJoinPoint joinPoint, ContextView context) {
+        try (LogContext.MdcScope scope = LogContext.open(context)) {
+            return joinPoint.proceed();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.nttdata.credit.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lets through at most {@code permitsPerSecond} events per second from the loggers whose name
+ * starts with {@code loggerPrefix}, dropping the rest before the event is even built.
+ * Events at {@code WARN} and above always pass. Declare one filter per noisy logger
+ * in {@code logback-spring.xml}.
+ */
+public class RateSamplingTurboFilter extends TurboFilter {
+    private static final long WINDOW_NANOS = 1_000_000_000L;
+
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    private final AtomicInteger eventsInWindow = new AtomicInteger();
+    private String loggerPrefix = "";
+    private int permitsPerSecond = 10;
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params,
+                              Throwable t) {
+        if (level == null || level.isGreaterOrEqual(Level.WARN) || !logger.getName().startsWith(loggerPrefix)
+                || !level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+        long now = System.nanoTime();
+        long start = windowStart.get();
+        if (now - start >= WINDOW_NANOS && windowStart.compareAndSet(start, now)) {
+            eventsInWindow.set(0);
+        }
+        return eventsInWindow.incrementAndGet() <= permitsPerSecond ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    public void setLoggerPrefix(String loggerPrefix) {
+        this.loggerPrefix = loggerPrefix;
+    }
+
+    public void setPermitsPerSecond(int permitsPerSecond) {
+        this.permitsPerSecond = permitsPerSecond;
+    }
+}
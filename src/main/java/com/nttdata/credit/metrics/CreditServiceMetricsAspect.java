@@ -0,0 +1,38 @@
+package com.nttdata.credit.metrics;
+
+import com.nttdata.credit.tracing.RequestTiming;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Times every {@link com.nttdata.credit.service.CreditService} operation. It runs outside
+ * the circuit breaker and time limiter, so fallbacks and timeouts are part of the sample,
+ * and reports the operation as a stage of the request timing.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class CreditServiceMetricsAspect {
+    private final OperationMetrics operationMetrics;
+
+    @Around("execution(* com.nttdata.credit.service.CreditService.*(..))")
+    public Object timeOperation(ProceedingJoinPoint joinPoint) throws Throwable {
+        String operation = joinPoint.getSignature().getName();
+        Object result = joinPoint.proceed();
+        if (result instanceof Mono) {
+            return RequestTiming.stage(operation, operationMetrics.timed(operation, (Mono<?>) result));
+        }
+        if (result instanceof Flux) {
+            return RequestTiming.stage(operation, operationMetrics.timed(operation, (Flux<?>) result));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,75 @@
+package com.nttdata.credit.metrics;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records how many documents each MongoDB command returned or wrote, by command and
+ * collection. Latency is already recorded by the listener Spring Boot registers as
+ * {@code mongodb.driver.commands}.
+ */
+public class MongoCommandMetrics implements CommandListener {
+    public static final String METRIC_NAME = "mongodb.driver.documents";
+    private static final String UNKNOWN = "unknown";
+    private static final String GET_MORE = "getMore";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Integer, String> collections = new ConcurrentHashMap<>();
+
+    public MongoCommandMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        String field = GET_MORE.equals(event.getCommandName()) ? "collection" : event.getCommandName();
+        BsonValue collection = event.getCommand().get(field);
+        if (collection != null && collection.isString()) {
+            collections.put(event.getRequestId(), collection.asString().getValue());
+        }
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        String collection = collections.remove(event.getRequestId());
+        DistributionSummary.builder(METRIC_NAME)
+                .description("Documents returned or written by MongoDB commands")
+                .baseUnit("documents")
+                .tag("command", event.getCommandName())
+                .tag("collection", collection == null ? UNKNOWN : collection)
+                .register(meterRegistry)
+                .record(documentCount(event.getResponse()));
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        collections.remove(event.getRequestId());
+    }
+
+    /**
+     * Batch size for cursor commands, {@code n} for writes and findAndModify.
+     */
+    private static int documentCount(BsonDocument response) {
+        BsonDocument cursor = response.getDocument("cursor", null);
+        if (cursor != null) {
+            BsonArray batch = cursor.containsKey("firstBatch")
+                    ? cursor.getArray("firstBatch") : cursor.getArray("nextBatch", new BsonArray());
+            return batch.size();
+        }
+        if (response.isNumber("n")) {
+            return response.getNumber("n").intValue();
+        }
+        BsonDocument lastError = response.getDocument("lastErrorObject", null);
+        return lastError != null && lastError.isNumber("n") ? lastError.getNumber("n").intValue() : 0;
+    }
+}
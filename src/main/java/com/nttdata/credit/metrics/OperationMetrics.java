@@ -0,0 +1,71 @@
+package com.nttdata.credit.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Times reactive operations from subscription to their terminal signal, tagging each
+ * sample with the operation name, the outcome and the exception that ended it.
+ */
+@Component
+public class OperationMetrics {
+    public static final String METRIC_NAME = "credit.service";
+    private static final String SUCCESS = "success";
+    private static final String ERROR = "error";
+    private static final String CANCELLED = "cancelled";
+    private static final String NONE = "none";
+
+    private final MeterRegistry meterRegistry;
+
+    public OperationMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> Mono<T> timed(String operation, Mono<T> mono) {
+        return Mono.defer(() -> {
+            Sample sample = new Sample(operation);
+            return mono.doOnSuccess(value -> sample.stop(SUCCESS, null))
+                    .doOnError(e -> sample.stop(ERROR, e))
+                    .doOnCancel(() -> sample.stop(CANCELLED, null));
+        });
+    }
+
+    public <T> Flux<T> timed(String operation, Flux<T> flux) {
+        return Flux.defer(() -> {
+            Sample sample = new Sample(operation);
+            return flux.doOnComplete(() -> sample.stop(SUCCESS, null))
+                    .doOnError(e -> sample.stop(ERROR, e))
+                    .doOnCancel(() -> sample.stop(CANCELLED, null));
+        });
+    }
+
+    /**
+     * One subscription. Only the first terminal signal is recorded, since a cancel
+     * can still arrive after a Mono has emitted its value.
+     */
+    private final class Sample {
+        private final String operation;
+        private final Timer.Sample sample = Timer.start(meterRegistry);
+        private final AtomicBoolean stopped = new AtomicBoolean();
+
+        private Sample(String operation) {
+            this.operation = operation;
+        }
+
+        private void stop(String outcome, Throwable error) {
+            if (stopped.compareAndSet(false, true)) {
+                sample.stop(Timer.builder(METRIC_NAME)
+                        .description("Latency of the credit service operations")
+                        .tag("operation", operation)
+                        .tag("outcome", outcome)
+                        .tag("exception", error == null ? NONE : error.getClass().getSimpleName())
+                        .register(meterRegistry));
+            }
+        }
+    }
+}
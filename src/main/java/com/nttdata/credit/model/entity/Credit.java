@@ -1,24 +1,35 @@
 package com.nttdata.credit.model.entity;
 
+import com.nttdata.credit.model.enums.TypeClient;
 import com.nttdata.credit.model.enums.TypeCredit;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.util.Date;
-import java.util.List;
 
 /**
  * Represents a credit in the system.
+ * The clientId and type index also serves the queries filtering on clientId alone.
+ * The unique partial index on clientId lets a personal client hold a single credit.
  */
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "credit")
+@CompoundIndexes({
+        @CompoundIndex(name = "clientId_type", def = "{'clientId': 1, 'type': 1}"),
+        @CompoundIndex(name = "clientId_personal", def = "{'clientId': 1}", unique = true,
+                partialFilter = "{'clientType': 'PERSONAL'}")
+})
 public class Credit {
     /**
      * Unique identifier for the credit.
@@ -44,11 +55,13 @@ public class Credit {
     /**
      * Start date of the credit.
      */
+    @Indexed
     private Date startDate;
 
     /**
      * End date of the credit.
      */
+    @Indexed
     private Date endDate;
 
     /**
@@ -62,8 +75,14 @@ public class Credit {
     private String clientId;
 
     /**
-     * List of payments associated with the credit.
+     * Type of the client associated with the credit, recorded when the credit is created.
      */
-    private List<Payment> payments;
+    private TypeClient clientType;
+
+    /**
+     * Incremented on every write, used for optimistic concurrency and as the ETag.
+     */
+    @Version
+    private Long version;
 
 }
@@ -4,16 +4,33 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.util.Date;
 /**
  * Represents a payment in the system.
+ * Payments are stored in their own collection, keyed by the credit they belong to.
  */
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
+@Document(collection = "payment")
+@CompoundIndex(name = "creditId_date_id", def = "{'creditId': 1, 'date': 1, '_id': 1}")
 public class Payment {
+    /**
+     * Unique identifier for the payment.
+     */
+    @Id
+    private String id;
+
+    /**
+     * Credit ID associated with the payment.
+     */
+    private String creditId;
+
     /**
      * Amount of the payment.
      */
@@ -28,4 +45,10 @@ public class Payment {
      * Description of the payment.
      */
     private String description;
+
+    public Payment(double amount, Date date, String description) {
+        this.amount = amount;
+        this.date = date;
+        this.description = description;
+    }
 }
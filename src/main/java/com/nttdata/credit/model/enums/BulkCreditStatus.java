@@ -0,0 +1,7 @@
+package com.nttdata.credit.model.enums;
+
+public enum BulkCreditStatus {
+    CREATED,
+    REJECTED,
+    FAILED
+}
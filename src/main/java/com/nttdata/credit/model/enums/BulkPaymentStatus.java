@@ -0,0 +1,9 @@
+package com.nttdata.credit.model.enums;
+
+public enum BulkPaymentStatus {
+    APPLIED,
+    OVERPAYMENT,
+    NOT_FOUND,
+    INVALID,
+    FAILED
+}
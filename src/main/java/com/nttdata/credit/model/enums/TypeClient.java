@@ -1,6 +1,10 @@
 package com.nttdata.credit.model.enums;
 
+import com.nttdata.credit.util.EnumLookup;
+
 public enum TypeClient {
     PERSONAL,
-    BUSINESS
+    BUSINESS;
+
+    public static final EnumLookup<TypeClient> LOOKUP = EnumLookup.of(TypeClient.class);
 }
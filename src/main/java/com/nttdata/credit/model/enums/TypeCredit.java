@@ -1,6 +1,10 @@
 package com.nttdata.credit.model.enums;
 
+import com.nttdata.credit.util.EnumLookup;
+
 public enum TypeCredit {
     PERSONAL,
-    BUSINESS
+    BUSINESS;
+
+    public static final EnumLookup<TypeCredit> LOOKUP = EnumLookup.of(TypeCredit.class);
 }
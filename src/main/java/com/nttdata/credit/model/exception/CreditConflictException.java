@@ -0,0 +1,12 @@
+package com.nttdata.credit.model.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * The request is valid but breaks a rule given the credits that already exist.
+ */
+public class CreditConflictException extends CreditException {
+    public CreditConflictException(String message) {
+        super(HttpStatus.CONFLICT, "Credit Conflict", message);
+    }
+}
@@ -0,0 +1,25 @@
+package com.nttdata.credit.model.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Base of the errors the service reports to its callers. Each one carries the HTTP
+ * status and error title of its response. Business outcomes such as a missing credit
+ * are expected, so these exceptions do not capture a stack trace.
+ */
+@Getter
+public abstract class CreditException extends RuntimeException {
+    private final HttpStatus status;
+    private final String error;
+
+    protected CreditException(HttpStatus status, String error, String message) {
+        this(status, error, message, null);
+    }
+
+    protected CreditException(HttpStatus status, String error, String message, Throwable cause) {
+        super(message, cause, false, false);
+        this.status = status;
+        this.error = error;
+    }
+}
@@ -1,42 +1,25 @@
 package com.nttdata.credit.model.exception;
 
 import com.nttdata.credit.model.response.ErrorResponse;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+@Slf4j
 @RestControllerAdvice
 public class CreditExceptionHandler {
 
-    @ExceptionHandler(CreditNotFoundException.class)
-    public ResponseEntity<ErrorResponse> handleCreditNotFoundException(CreditNotFoundException ex) {
-        ErrorResponse errorResponse = new ErrorResponse();
-        errorResponse.setError("Credit Not Found");
-        errorResponse.setMessage(ex.getMessage());
-        return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
-    }
-
-    @ExceptionHandler(InvalidCreditDataException.class)
-    public ResponseEntity<ErrorResponse> handleInvalidCreditDataException(InvalidCreditDataException ex) {
-        ErrorResponse errorResponse = new ErrorResponse();
-        errorResponse.setError("Invalid Credit Data");
-        errorResponse.setMessage(ex.getMessage());
-        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    @ExceptionHandler(CreditException.class)
+    public ResponseEntity<ErrorResponse> handleCreditException(CreditException ex) {
+        return new ResponseEntity<>(new ErrorResponse(ex.getError(), ex.getMessage()), ex.getStatus());
     }
 
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleException(Exception ex) {
-        ErrorResponse errorResponse = new ErrorResponse();
-        errorResponse.setError("Internal Server Error");
-        errorResponse.setMessage(ex.getMessage());
-        return new ResponseEntity<>(errorResponse, HttpStatus.INTERNAL_SERVER_ERROR);
-    }
-    @ExceptionHandler(PaymentDataException.class)
-    public ResponseEntity<ErrorResponse> handlePaymentDataException(Exception ex) {
-        ErrorResponse errorResponse = new ErrorResponse();
-        errorResponse.setError("Invalid Payment Data");
-        errorResponse.setMessage(ex.getMessage());
-        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        log.error("Unexpected error", ex);
+        return new ResponseEntity<>(new ErrorResponse("Internal Server Error", ex.getMessage()),
+                HttpStatus.INTERNAL_SERVER_ERROR);
     }
-}
\ No newline at end of file
+}
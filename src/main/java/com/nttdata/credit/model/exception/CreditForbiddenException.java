@@ -0,0 +1,12 @@
+package com.nttdata.credit.model.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * The client service accepted the caller's credentials but denied access to the client.
+ */
+public class CreditForbiddenException extends CreditException {
+    public CreditForbiddenException(String message) {
+        super(HttpStatus.FORBIDDEN, "Forbidden", message);
+    }
+}
@@ -1,7 +1,9 @@
 package com.nttdata.credit.model.exception;
 
-public class CreditNotFoundException extends RuntimeException {
+import org.springframework.http.HttpStatus;
+
+public class CreditNotFoundException extends CreditException {
     public CreditNotFoundException(String message) {
-        super(message);
+        super(HttpStatus.NOT_FOUND, "Credit Not Found", message);
     }
 }
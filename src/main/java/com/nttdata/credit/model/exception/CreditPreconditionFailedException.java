@@ -0,0 +1,12 @@
+package com.nttdata.credit.model.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * The credit changed since the version the caller sent in {@code If-Match}.
+ */
+public class CreditPreconditionFailedException extends CreditException {
+    public CreditPreconditionFailedException(String message) {
+        super(HttpStatus.PRECONDITION_FAILED, "Precondition Failed", message);
+    }
+}
@@ -0,0 +1,13 @@
+package com.nttdata.credit.model.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * An operation failed for a reason other than a business rule, such as an open circuit,
+ * a timeout or a database error. The cause keeps the original stack trace.
+ */
+public class CreditServiceUnavailableException extends CreditException {
+    public CreditServiceUnavailableException(String message, Throwable cause) {
+        super(HttpStatus.SERVICE_UNAVAILABLE, "Service Unavailable", message, cause);
+    }
+}
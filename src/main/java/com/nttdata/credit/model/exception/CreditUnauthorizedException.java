@@ -0,0 +1,12 @@
+package com.nttdata.credit.model.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * The client service did not accept the caller's credentials.
+ */
+public class CreditUnauthorizedException extends CreditException {
+    public CreditUnauthorizedException(String message) {
+        super(HttpStatus.UNAUTHORIZED, "Unauthorized", message);
+    }
+}
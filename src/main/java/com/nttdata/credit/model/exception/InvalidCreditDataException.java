@@ -1,7 +1,9 @@
 package com.nttdata.credit.model.exception;
 
-public class InvalidCreditDataException extends RuntimeException {
+import org.springframework.http.HttpStatus;
+
+public class InvalidCreditDataException extends CreditException {
     public InvalidCreditDataException(String message) {
-        super(message);
+        super(HttpStatus.BAD_REQUEST, "Invalid Credit Data", message);
     }
 }
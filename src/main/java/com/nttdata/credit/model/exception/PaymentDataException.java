@@ -1,8 +1,10 @@
 package com.nttdata.credit.model.exception;
 
-public class PaymentDataException extends RuntimeException {
+import org.springframework.http.HttpStatus;
+
+public class PaymentDataException extends CreditException {
     public PaymentDataException(String message) {
-        super(message);
+        super(HttpStatus.BAD_REQUEST, "Invalid Payment Data", message);
     }
 
 }
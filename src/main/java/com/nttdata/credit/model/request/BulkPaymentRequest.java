@@ -0,0 +1,15 @@
+package com.nttdata.credit.model.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkPaymentRequest {
+    private String creditId;
+    private double amount;
+}
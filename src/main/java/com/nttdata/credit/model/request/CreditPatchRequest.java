@@ -0,0 +1,58 @@
+package com.nttdata.credit.model.request;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.nttdata.credit.model.enums.TypeCredit;
+import com.nttdata.credit.util.CreditTypeDeserializer;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * Fields of a credit to change. Fields left out are null and keep their stored value.
+ * The client of a credit cannot be changed with a patch.
+ */
+@Getter
+@NoArgsConstructor
+public class CreditPatchRequest {
+    @JsonDeserialize(using = CreditTypeDeserializer.class)
+    private TypeCredit type;
+    private Double amount;
+    private Double interestRate;
+    private Date startDate;
+    private Date endDate;
+    private Double outstandingBalance;
+
+    public void setType(TypeCredit type) {
+        this.type = type;
+    }
+
+    public void setAmount(Double amount) {
+        if (amount != null && amount < 0) {
+            throw new IllegalArgumentException("Amount must be non-negative");
+        }
+        this.amount = amount;
+    }
+
+    public void setInterestRate(Double interestRate) {
+        if (interestRate != null && interestRate < 0) {
+            throw new IllegalArgumentException("Interest rate must be non-negative");
+        }
+        this.interestRate = interestRate;
+    }
+
+    public void setStartDate(Date startDate) {
+        this.startDate = startDate;
+    }
+
+    public void setEndDate(Date endDate) {
+        this.endDate = endDate;
+    }
+
+    public void setOutstandingBalance(Double outstandingBalance) {
+        if (outstandingBalance != null && outstandingBalance < 0) {
+            throw new IllegalArgumentException("Outstanding balance must be non-negative");
+        }
+        this.outstandingBalance = outstandingBalance != null ? (double) Math.round(outstandingBalance) : null;
+    }
+}
@@ -16,4 +16,5 @@ import java.util.List;
 public class BalanceResponse {
     private String clientId;
     private List<Balance> balances;
+    private double totalBalance;
 }
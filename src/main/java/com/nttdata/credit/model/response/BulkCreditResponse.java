@@ -0,0 +1,21 @@
+package com.nttdata.credit.model.response;
+
+import com.nttdata.credit.model.enums.BulkCreditStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Outcome of one credit of a bulk creation, identified by its position in the request.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class BulkCreditResponse {
+    private int index;
+    private String id;
+    private BulkCreditStatus status;
+    private String message;
+}
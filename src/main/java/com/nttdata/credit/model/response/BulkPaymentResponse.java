@@ -0,0 +1,21 @@
+package com.nttdata.credit.model.response;
+
+import com.nttdata.credit.model.enums.BulkPaymentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Outcome of one payment of a bulk ingestion, identified by its position in the request.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class BulkPaymentResponse {
+    private long index;
+    private String creditId;
+    private BulkPaymentStatus status;
+    private String paymentId;
+}
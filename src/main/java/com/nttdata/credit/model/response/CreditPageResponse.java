@@ -0,0 +1,17 @@
+package com.nttdata.credit.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class CreditPageResponse {
+    private List<CreditResponse> content;
+    private String nextToken;
+}
@@ -21,4 +21,5 @@ public class CreditResponse {
     private double outstandingBalance;
     private String clientId;
     private List<Payment> payments;
+    private Long version;
 }
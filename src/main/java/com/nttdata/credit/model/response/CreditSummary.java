@@ -0,0 +1,26 @@
+package com.nttdata.credit.model.response;
+
+import com.nttdata.credit.model.enums.TypeCredit;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.Date;
+
+/**
+ * Read model of a credit for list screens, holding only the fields they show.
+ * Repository methods returning it read just these fields from MongoDB.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class CreditSummary {
+    private String id;
+    private TypeCredit type;
+    private double amount;
+    private double outstandingBalance;
+    private Date endDate;
+    private String clientId;
+}
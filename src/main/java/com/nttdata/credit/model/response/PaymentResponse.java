@@ -14,4 +14,5 @@ import java.util.Date;
 public class PaymentResponse {
    private double amount;
     private Date date;
+    private String id;
 }
@@ -1,12 +1,34 @@
 package com.nttdata.credit.repository;
 
 import com.nttdata.credit.model.entity.Credit;
+import com.nttdata.credit.model.response.CreditSummary;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
 
 @Repository
-public interface CreditRespository extends ReactiveMongoRepository<Credit,String> {
+public interface CreditRespository extends ReactiveMongoRepository<Credit,String>, CreditRespositoryCustom {
     Flux<Credit> findByClientId(String id);
+    Mono<Boolean> existsByClientId(String clientId);
+    @Query(value = "{ 'clientId': ?0 }", fields = "{ 'clientId': 1, 'outstandingBalance': 1 }")
+    Flux<Credit> findBalancesByClientId(String clientId);
+    @Query(value = "{ '_id': ?0 }", fields = "{ 'version': 1 }")
+    Mono<Credit> findVersionById(String id);
+    @Query(value = "{ 'clientId': ?0 }", fields = "{ 'version': 1 }", sort = "{ '_id': 1 }")
+    Flux<Credit> findVersionsByClientId(String clientId);
+    Flux<Credit> findByIdGreaterThan(String id, Pageable pageable);
+    @Query(value = "{ 'clientId': { '$in': ?0 } }", fields = "{ 'clientId': 1 }")
+    Flux<Credit> findClientIdsByClientIdIn(Collection<String> clientIds);
+    @Query(value = "{ '_id': { '$in': ?0 } }", fields = "{ 'outstandingBalance': 1 }")
+    Flux<Credit> findBalancesByIdIn(Collection<String> ids);
+    @Query(value = "{}", fields = "{ 'type': 1, 'amount': 1, 'outstandingBalance': 1, 'endDate': 1, 'clientId': 1 }")
+    Flux<CreditSummary> findAllSummaries();
+    @Query(value = "{ 'clientId': ?0 }", fields = "{ 'type': 1, 'amount': 1, 'outstandingBalance': 1, 'endDate': 1, 'clientId': 1 }")
+    Flux<CreditSummary> findSummariesByClientId(String clientId);
 
 }
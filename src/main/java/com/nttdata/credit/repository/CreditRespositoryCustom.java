@@ -0,0 +1,73 @@
+package com.nttdata.credit.repository;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.nttdata.credit.model.entity.Credit;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Credit operations that need the MongoDB update operators and therefore
+ * cannot be expressed as derived queries.
+ */
+public interface CreditRespositoryCustom {
+    /**
+     * Atomically decrements the outstanding balance, only if the balance covers the amount.
+     *
+     * @param id     the credit ID.
+     * @param amount the amount to decrement.
+     * @return the updated credit, or an empty Mono if the credit does not exist
+     *         or its balance is lower than the amount.
+     */
+    Mono<Credit> decrementBalance(String id, double amount);
+
+    /**
+     * Atomically increments the outstanding balance, undoing a previous decrement.
+     *
+     * @param id     the credit ID.
+     * @param amount the amount to give back.
+     * @return the updated credit, or an empty Mono if the credit does not exist.
+     */
+    Mono<Credit> restoreBalance(String id, double amount);
+
+    /**
+     * Decrements the balances of several credits with a single unordered bulk write.
+     * Each credit is only updated if its balance covers its amount.
+     *
+     * @param amounts the amount to decrement, by credit ID.
+     * @param batchId unique ID of this bulk write, added to the recent batches of every updated credit.
+     * @return the IDs of the credits that were updated.
+     */
+    Mono<Set<String>> decrementBalances(Map<String, Double> amounts, String batchId);
+
+    /**
+     * Inserts the credits with a single unordered bulk insert, so one failed
+     * document does not stop the others from being written.
+     *
+     * @param credits the credits to insert.
+     * @return the write error of each credit that could not be inserted, by position in the list.
+     */
+    Mono<Map<Integer, BulkWriteError>> insertAllUnordered(List<Credit> credits);
+
+    /**
+     * Applies the update and increments the version in a single round trip.
+     *
+     * @param id              the credit ID.
+     * @param update          the fields to set.
+     * @param expectedVersion the version the credit must have, or null to update any version.
+     * @return the updated credit, or an empty Mono if no credit has that ID and version.
+     */
+    Mono<Credit> updateVersioned(String id, Update update, Long expectedVersion);
+
+    /**
+     * Deletes the credit with a single conditional delete.
+     *
+     * @param id              the credit ID.
+     * @param expectedVersion the version the credit must have, or null to delete any version.
+     * @return true if a credit was deleted, false if no credit has that ID and version.
+     */
+    Mono<Boolean> deleteVersioned(String id, Long expectedVersion);
+}
@@ -0,0 +1,139 @@
+package com.nttdata.credit.repository;
+
+import com.nttdata.credit.model.entity.Credit;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongodb.client.model.PushOptions;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.Updates;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of {@link CreditRespositoryCustom} on top of {@link ReactiveMongoTemplate}.
+ */
+@RequiredArgsConstructor
+public class CreditRespositoryCustomImpl implements CreditRespositoryCustom {
+    private static final String OUTSTANDING_BALANCE = "outstandingBalance";
+    private static final String PAYMENT_BATCHES = "paymentBatches";
+    /**
+     * Bulk payment writes remembered on each credit. A batch only needs to find its own ID
+     * between its bulk write and the read that follows, so a short history is enough.
+     */
+    private static final int PAYMENT_BATCH_HISTORY = 32;
+    private static final String VERSION = "version";
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Mono<Credit> decrementBalance(String id, double amount) {
+        Query query = Query.query(Criteria.where("_id").is(id).and(OUTSTANDING_BALANCE).gte(amount));
+        return incrementBalance(query, -amount);
+    }
+
+    @Override
+    public Mono<Credit> restoreBalance(String id, double amount) {
+        return incrementBalance(Query.query(Criteria.where("_id").is(id)), amount);
+    }
+
+    /**
+     * The bulk write result only reports how many credits matched. When some did not,
+     * the credits carrying the batch ID tell which updates were applied. The ID is pushed
+     * onto a capped list rather than set on a single field, so a later batch debiting the
+     * same credit cannot hide this one.
+     */
+    @Override
+    public Mono<Set<String>> decrementBalances(Map<String, Double> amounts, String batchId) {
+        if (amounts.isEmpty()) {
+            return Mono.just(Collections.emptySet());
+        }
+        List<UpdateOneModel<Document>> updates = amounts.entrySet().stream()
+                .map(amount -> new UpdateOneModel<Document>(
+                        Filters.and(Filters.eq("_id", amount.getKey()), Filters.gte(OUTSTANDING_BALANCE, amount.getValue())),
+                        Updates.combine(Updates.inc(OUTSTANDING_BALANCE, -amount.getValue()),
+                                Updates.inc(VERSION, 1L),
+                                Updates.pushEach(PAYMENT_BATCHES, List.of(batchId),
+                                        new PushOptions().slice(-PAYMENT_BATCH_HISTORY)))))
+                .collect(Collectors.toList());
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(Credit.class))
+                .flatMap(collection -> Mono.from(collection.bulkWrite(updates, new BulkWriteOptions().ordered(false))))
+                .flatMap(result -> result.getMatchedCount() == updates.size()
+                        ? Mono.just(amounts.keySet())
+                        : findUpdatedByBatch(amounts.keySet(), batchId));
+    }
+
+    @Override
+    public Mono<Map<Integer, BulkWriteError>> insertAllUnordered(List<Credit> credits) {
+        if (credits.isEmpty()) {
+            return Mono.just(Collections.emptyMap());
+        }
+        List<Document> documents = credits.stream()
+                .map(credit -> {
+                    if (credit.getVersion() == null) {
+                        credit.setVersion(0L);
+                    }
+                    Document document = new Document();
+                    mongoTemplate.getConverter().write(credit, document);
+                    return document;
+                })
+                .collect(Collectors.toList());
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(Credit.class))
+                .flatMap(collection -> Mono.from(collection.insertMany(documents, new InsertManyOptions().ordered(false))))
+                .map(result -> Collections.<Integer, BulkWriteError>emptyMap())
+                .onErrorResume(MongoBulkWriteException.class, e -> Mono.just(e.getWriteErrors().stream()
+                        .collect(Collectors.toMap(BulkWriteError::getIndex, error -> error))));
+    }
+
+    private Mono<Set<String>> findUpdatedByBatch(Set<String> ids, String batchId) {
+        Query query = Query.query(Criteria.where("_id").in(ids).and(PAYMENT_BATCHES).in(batchId));
+        query.fields().include("_id");
+        return mongoTemplate.find(query, Credit.class)
+                .map(Credit::getId)
+                .collect(Collectors.toSet());
+    }
+
+    @Override
+    public Mono<Credit> updateVersioned(String id, Update update, Long expectedVersion) {
+        return mongoTemplate.findAndModify(versionedQuery(id, expectedVersion), update.inc(VERSION, 1L),
+                FindAndModifyOptions.options().returnNew(true), Credit.class);
+    }
+
+    @Override
+    public Mono<Boolean> deleteVersioned(String id, Long expectedVersion) {
+        return mongoTemplate.remove(versionedQuery(id, expectedVersion), Credit.class)
+                .map(result -> result.getDeletedCount() > 0);
+    }
+
+    /**
+     * Credits written before the version field existed have none, and count as version 0.
+     */
+    private static Query versionedQuery(String id, Long expectedVersion) {
+        Criteria criteria = Criteria.where("_id").is(id);
+        if (expectedVersion != null) {
+            criteria = expectedVersion == 0L
+                    ? criteria.and(VERSION).in(0L, null)
+                    : criteria.and(VERSION).is(expectedVersion);
+        }
+        return Query.query(criteria);
+    }
+
+    private Mono<Credit> incrementBalance(Query query, double amount) {
+        Update update = new Update().inc(OUTSTANDING_BALANCE, amount).inc(VERSION, 1L);
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), Credit.class);
+    }
+}
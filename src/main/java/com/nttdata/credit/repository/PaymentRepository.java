@@ -0,0 +1,38 @@
+package com.nttdata.credit.repository;
+
+import com.nttdata.credit.model.entity.Payment;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Date;
+
+@Repository
+public interface PaymentRepository extends ReactiveMongoRepository<Payment, String>, PaymentRepositoryCustom {
+    /**
+     * Keyset page of the payments of a credit made strictly after the given date,
+     * ordered by date and ID.
+     */
+    @Query(value = "{ 'creditId': ?0, 'date': { '$gt': ?1 } }", sort = "{ 'date': 1, '_id': 1 }")
+    Flux<Payment> findPageAfter(String creditId, Date afterDate, Pageable pageable);
+
+    /**
+     * Keyset page of the payments of a credit that follow the payment identified by
+     * the given date and ID, ordered by date and ID.
+     */
+    @Query(value = "{ 'creditId': ?0, '$or': [ { 'date': { '$gt': ?1 } }, { 'date': ?1, '_id': { '$gt': ?2 } } ] }",
+            sort = "{ 'date': 1, '_id': 1 }")
+    Flux<Payment> findPageAfter(String creditId, Date afterDate, String afterId, Pageable pageable);
+
+    /**
+     * Latest payment of a credit, by date and ID.
+     */
+    Mono<Payment> findFirstByCreditIdOrderByDateDescIdDesc(String creditId);
+
+    Mono<Long> countByCreditId(String creditId);
+
+    Mono<Void> deleteByCreditId(String creditId);
+}
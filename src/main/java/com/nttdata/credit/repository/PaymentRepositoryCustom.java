@@ -0,0 +1,22 @@
+package com.nttdata.credit.repository;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.nttdata.credit.model.entity.Payment;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Payment operations that need the MongoDB driver directly.
+ */
+public interface PaymentRepositoryCustom {
+    /**
+     * Inserts the payments with a single unordered bulk insert, so one failed
+     * document does not stop the others from being written.
+     *
+     * @param payments the payments to insert.
+     * @return the write error of each payment that could not be inserted, by position in the list.
+     */
+    Mono<Map<Integer, BulkWriteError>> insertAllUnordered(List<Payment> payments);
+}
@@ -0,0 +1,42 @@
+package com.nttdata.credit.repository;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.model.InsertManyOptions;
+import com.nttdata.credit.model.entity.Payment;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of {@link PaymentRepositoryCustom} on top of {@link ReactiveMongoTemplate}.
+ */
+@RequiredArgsConstructor
+public class PaymentRepositoryCustomImpl implements PaymentRepositoryCustom {
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Mono<Map<Integer, BulkWriteError>> insertAllUnordered(List<Payment> payments) {
+        if (payments.isEmpty()) {
+            return Mono.just(Collections.emptyMap());
+        }
+        List<Document> documents = payments.stream()
+                .map(payment -> {
+                    Document document = new Document();
+                    mongoTemplate.getConverter().write(payment, document);
+                    return document;
+                })
+                .collect(Collectors.toList());
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(Payment.class))
+                .flatMap(collection -> Mono.from(collection.insertMany(documents, new InsertManyOptions().ordered(false))))
+                .map(result -> Collections.<Integer, BulkWriteError>emptyMap())
+                .onErrorResume(MongoBulkWriteException.class, e -> Mono.just(e.getWriteErrors().stream()
+                        .collect(Collectors.toMap(BulkWriteError::getIndex, error -> error))));
+    }
+}
@@ -0,0 +1,107 @@
+package com.nttdata.credit.resilience;
+
+import com.nttdata.credit.model.exception.CreditServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * Caps the concurrent calls to a dependency with a limit that follows its latency (AIMD).
+ * A call slower than the latency threshold, or one ending in an error the caller classifies
+ * as overload, shrinks the limit by 10%. A fast call made while at least half of the limit was
+ * in use grows it by one. Calls over the limit fail at once with a
+ * {@link CreditServiceUnavailableException} instead of queueing.
+ */
+public class AdaptiveConcurrencyLimiter {
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final AtomicInteger limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter rejected;
+
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit
+            , Duration latencyThreshold, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.limit = new AtomicInteger(Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit)));
+        Gauge.builder("credit.concurrency.limit", limit, AtomicInteger::get).tag("name", name)
+                .register(meterRegistry);
+        Gauge.builder("credit.concurrency.in-flight", inFlight, AtomicInteger::get).tag("name", name)
+                .register(meterRegistry);
+        this.rejected = Counter.builder("credit.concurrency.rejected").tag("name", name).register(meterRegistry);
+    }
+
+    /**
+     * Runs the call if the limit allows it, feeding its latency and outcome back into the limit.
+     *
+     * @param call     the call to limit, subscribed once per subscription of the result.
+     * @param overload errors that mean the dependency is overloaded rather than that it answered.
+     */
+    public <T> Mono<T> limit(Mono<T> call, Predicate<Throwable> overload) {
+        return Mono.defer(() -> {
+            int current = tryAcquire();
+            if (current < 0) {
+                rejected.increment();
+                return Mono.error(new CreditServiceUnavailableException("Concurrency limit reached for " + name, null));
+            }
+            long start = System.nanoTime();
+            AtomicBoolean released = new AtomicBoolean();
+            return call
+                    .doOnEach(signal -> {
+                        if (!signal.isOnSubscribe() && released.compareAndSet(false, true)) {
+                            release(current, System.nanoTime() - start,
+                                    signal.isOnError() && overload.test(signal.getThrowable()));
+                        }
+                    })
+                    .doOnCancel(() -> {
+                        if (released.compareAndSet(false, true)) {
+                            inFlight.decrementAndGet();
+                        }
+                    });
+        });
+    }
+
+    public int getLimit() {
+        return limit.get();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * @return the calls in flight before this one, or -1 if the limit is reached.
+     */
+    private int tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit.get()) {
+                return -1;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return current;
+            }
+        }
+    }
+
+    private void release(int inFlightAtStart, long latencyNanos, boolean overloaded) {
+        inFlight.decrementAndGet();
+        if (overloaded || latencyNanos > latencyThresholdNanos) {
+            limit.updateAndGet(value -> Math.max(minLimit, (int) (value * BACKOFF_RATIO)));
+        } else if ((inFlightAtStart + 1) * 2 >= limit.get()) {
+            limit.updateAndGet(value -> Math.min(maxLimit, value + 1));
+        }
+    }
+}
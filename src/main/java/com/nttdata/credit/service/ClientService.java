@@ -1,20 +1,199 @@
 package com.nttdata.credit.service;
 
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import com.nttdata.credit.model.entity.Client;
-import lombok.RequiredArgsConstructor;
+import com.nttdata.credit.model.exception.CreditException;
+import com.nttdata.credit.model.exception.CreditForbiddenException;
+import com.nttdata.credit.model.exception.CreditNotFoundException;
+import com.nttdata.credit.model.exception.CreditServiceUnavailableException;
+import com.nttdata.credit.model.exception.CreditUnauthorizedException;
+import com.nttdata.credit.resilience.AdaptiveConcurrencyLimiter;
+import com.nttdata.credit.tracing.RequestTiming;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Mono;
-@RequiredArgsConstructor
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import static com.nttdata.credit.util.constats.ConstantsMessage.CLIENT_FORBIDDEN;
+import static com.nttdata.credit.util.constats.ConstantsMessage.CLIENT_NOT_FOUND;
+import static com.nttdata.credit.util.constats.ConstantsMessage.CLIENT_SERVICE_UNAVAILABLE;
+import static com.nttdata.credit.util.constats.ConstantsMessage.CLIENT_UNAUTHORIZED;
+
+/**
+ * Looks up client profiles in the client service.
+ * Profiles are kept in a size-bounded cache keyed by client and Authorization header, so a
+ * profile is only served to callers whose token the client service accepted for it, and
+ * concurrent lookups of the same client with the same token share a single in-flight call.
+ * Each caller waits on its own copy of that call, so a cancelled caller does not cancel it
+ * for the others. A profile is fresh for {@code fresh-for}; after that it is still served at
+ * once while a background call refreshes it, and a failed refresh keeps the stale profile
+ * until {@code stale-for} has passed since it was fetched. The token is only rechecked by
+ * these refreshes, so a profile can keep being served to a token for up to {@code stale-for}
+ * after the client service stops accepting it; a refresh answered with 401 or 403 drops the
+ * profile at once. Calls that reach the client service go through a bulkhead, an adaptive
+ * concurrency limit and a timeout, so a slow client service makes lookups fail fast with a 503
+ * instead of piling up.
+ */
+@Slf4j
 @Service
 public class ClientService {
+    private static final Predicate<Throwable> OVERLOAD = e -> e instanceof TimeoutException
+            || e instanceof WebClientRequestException
+            || e instanceof WebClientResponseException
+                    && ((WebClientResponseException) e).getStatusCode().is5xxServerError();
+
     private final WebClient webClient;
+    private final AsyncCache<CacheKey, CachedClient> clientCache;
+    private final Set<CacheKey> refreshing = ConcurrentHashMap.newKeySet();
+    private final long freshForNanos;
+    private final Counter staleServed;
+    private final Counter refreshSucceeded;
+    private final Counter refreshFailed;
+    private final Bulkhead bulkhead;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final Duration callTimeout;
+
+    public ClientService(WebClient webClient, MeterRegistry meterRegistry
+            , @Value("${credit.client-cache.maximum-size:10000}") long maximumSize
+            , @Value("${credit.client-cache.fresh-for:5m}") Duration freshFor
+            , @Value("${credit.client-cache.stale-for:1h}") Duration staleFor
+            , Bulkhead clientBulkhead, AdaptiveConcurrencyLimiter clientConcurrencyLimiter
+            , @Value("${credit.client.call-timeout:2s}") Duration callTimeout) {
+        this.webClient = webClient;
+        this.bulkhead = clientBulkhead;
+        this.concurrencyLimiter = clientConcurrencyLimiter;
+        this.callTimeout = callTimeout;
+        this.freshForNanos = freshFor.toNanos();
+        this.clientCache = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(staleFor)
+                .recordStats()
+                .<CacheKey, CachedClient>buildAsync(), "client");
+        this.staleServed = Counter.builder("credit.client-cache.stale").register(meterRegistry);
+        this.refreshSucceeded = Counter.builder("credit.client-cache.refresh").tag("outcome", "success")
+                .register(meterRegistry);
+        this.refreshFailed = Counter.builder("credit.client-cache.refresh").tag("outcome", "failure")
+                .register(meterRegistry);
+    }
 
     public Mono<Client> getClientById(String clientId ,String authorizationHeader) {
+        CacheKey key = new CacheKey(clientId, authorizationHeader);
+        return RequestTiming.stage("client", Mono.fromFuture(() -> clientCache.get(key,
+                        (ignored, executor) -> fetchClient(clientId, authorizationHeader).map(CachedClient::new)
+                                .toFuture())
+                        .thenApply(Function.identity()))
+                .map(cached -> {
+                    if (System.nanoTime() - cached.fetchedAtNanos >= freshForNanos) {
+                        staleServed.increment();
+                        refresh(key);
+                    }
+                    return cached.client;
+                }));
+    }
+
+    /**
+     * Hit, miss and eviction counters of the client cache.
+     */
+    public CacheStats getCacheStats() {
+        return clientCache.synchronous().stats();
+    }
+
+    /**
+     * Refetches a stale profile in the background, once per client and token at a time. A client
+     * the client service no longer knows, or no longer shows to this token, is dropped; any other
+     * failure keeps the stale profile.
+     */
+    private void refresh(CacheKey key) {
+        if (!refreshing.add(key)) {
+            return;
+        }
+        fetchClient(key.clientId, key.authorizationHeader)
+                .doFinally(signal -> refreshing.remove(key))
+                .subscribe(client -> {
+                    refreshSucceeded.increment();
+                    clientCache.put(key, CompletableFuture.completedFuture(new CachedClient(client)));
+                }, e -> {
+                    refreshFailed.increment();
+                    if (e instanceof CreditException && !(e instanceof CreditServiceUnavailableException)) {
+                        clientCache.synchronous().invalidate(key);
+                    } else {
+                        log.debug("Serving stale client {} after failed refresh", key.clientId, e);
+                    }
+                });
+    }
+
+    private Mono<Client> fetchClient(String clientId ,String authorizationHeader) {
         return webClient.get()
                 .uri("/api/v1/client/{id}", clientId)
                 .header("Authorization", authorizationHeader)
                 .retrieve()
-                .bodyToMono(Client.class);
+                .bodyToMono(Client.class)
+                .timeout(callTimeout)
+                .transform(call -> concurrencyLimiter.limit(call, OVERLOAD))
+                .transformDeferred(BulkheadOperator.of(bulkhead))
+                .onErrorMap(WebClientResponseException.NotFound.class,
+                        e -> new CreditNotFoundException(CLIENT_NOT_FOUND + clientId))
+                .onErrorMap(WebClientResponseException.Unauthorized.class,
+                        e -> new CreditUnauthorizedException(CLIENT_UNAUTHORIZED + clientId))
+                .onErrorMap(WebClientResponseException.Forbidden.class,
+                        e -> new CreditForbiddenException(CLIENT_FORBIDDEN + clientId))
+                .onErrorMap(OVERLOAD.or(BulkheadFullException.class::isInstance),
+                        e -> new CreditServiceUnavailableException(CLIENT_SERVICE_UNAVAILABLE, e));
+    }
+
+    private static final class CacheKey {
+        private final String clientId;
+        private final String authorizationHeader;
+
+        private CacheKey(String clientId, String authorizationHeader) {
+            this.clientId = clientId;
+            this.authorizationHeader = authorizationHeader;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof CacheKey)) {
+                return false;
+            }
+            CacheKey key = (CacheKey) other;
+            return clientId.equals(key.clientId) && Objects.equals(authorizationHeader, key.authorizationHeader);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * clientId.hashCode() + Objects.hashCode(authorizationHeader);
+        }
+    }
+
+    private static final class CachedClient {
+        private final Client client;
+        private final long fetchedAtNanos = System.nanoTime();
+
+        private CachedClient(Client client) {
+            this.client = client;
+        }
     }
 }
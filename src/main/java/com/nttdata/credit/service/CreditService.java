@@ -1,21 +1,40 @@
 package com.nttdata.credit.service;
 
+import com.nttdata.credit.model.request.BulkPaymentRequest;
+import com.nttdata.credit.model.request.CreditPatchRequest;
 import com.nttdata.credit.model.request.CreditRequest;
 import com.nttdata.credit.model.request.PaymentRequest;
 import com.nttdata.credit.model.response.BalanceResponse;
+import com.nttdata.credit.model.response.BulkCreditResponse;
+import com.nttdata.credit.model.response.BulkPaymentResponse;
+import com.nttdata.credit.model.response.CreditPageResponse;
 import com.nttdata.credit.model.response.CreditResponse;
+import com.nttdata.credit.model.response.CreditSummary;
 import com.nttdata.credit.model.response.PaymentResponse;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Date;
+import java.util.List;
+
 public interface CreditService {
     Flux<CreditResponse>getAllCredits();
+    Flux<CreditSummary> getAllCreditSummaries();
+    Mono<CreditPageResponse> getCreditsPage(String token, int size);
+    Flux<CreditResponse> streamAllCredits();
     Mono<CreditResponse>getCreditById(String idCredit);
+    Mono<String> getCreditETag(String idCredit);
+    Mono<String> getPaymentsETag(String idCredit);
     Mono<CreditResponse> createCredit(CreditRequest creditRequest, String authorizationHeader);
-    Mono<CreditResponse> updateCredit(String id, CreditRequest creditRequest);
-    Mono<Void> deleteCredit(String id);
+    Flux<BulkCreditResponse> createCredits(List<CreditRequest> creditRequests, String authorizationHeader);
+    Mono<CreditResponse> updateCredit(String id, CreditRequest creditRequest, Long expectedVersion);
+    Mono<CreditResponse> patchCredit(String id, CreditPatchRequest patch, Long expectedVersion);
+    Mono<Void> deleteCredit(String id, Long expectedVersion);
     Mono<PaymentResponse>payByCreditId(String id , PaymentRequest paymentRequest);
-    Flux<PaymentResponse>getAllPaysByCredirId(String id);
-    Flux<BalanceResponse> getBalanceByClientId(String idClient);
+    Flux<BulkPaymentResponse> payInBulk(Flux<BulkPaymentRequest> paymentRequests);
+    Flux<PaymentResponse>getAllPaysByCredirId(String id, Date afterDate, String afterId, int limit);
+    Mono<BalanceResponse> getBalanceByClientId(String idClient);
+    Mono<String> getBalanceETag(String idClient);
     Flux<CreditResponse>getCreditByClientId(String idClient);
+    Flux<CreditSummary> getCreditSummariesByClientId(String idClient);
 }
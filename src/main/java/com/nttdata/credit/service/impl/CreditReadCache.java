@@ -0,0 +1,56 @@
+package com.nttdata.credit.service.impl;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nttdata.credit.model.response.CreditResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Optional read-through cache of credits by ID, enabled with {@code credit.credit-cache.enabled}.
+ * Concurrent lookups of the same credit share one query, and results are kept for a short TTL.
+ * Writes on this node invalidate their credit; writes on other nodes are seen once the TTL expires,
+ * which also bounds a lookup racing with a local write.
+ */
+@Component
+public class CreditReadCache {
+    private final AsyncCache<String, CreditResponse> cache;
+
+    public CreditReadCache(MeterRegistry meterRegistry
+            , @Value("${credit.credit-cache.enabled:false}") boolean enabled
+            , @Value("${credit.credit-cache.maximum-size:10000}") long maximumSize
+            , @Value("${credit.credit-cache.ttl:2s}") Duration ttl) {
+        this.cache = enabled
+                ? CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                        .maximumSize(maximumSize)
+                        .expireAfterWrite(ttl)
+                        .recordStats()
+                        .<String, CreditResponse>buildAsync(), "credit")
+                : null;
+    }
+
+    /**
+     * Returns the cached credit, or loads it once for all the concurrent callers.
+     * Missing credits and failures are not cached. Each caller waits on its own copy
+     * of the shared load, so cancelling one caller does not cancel the load for the others.
+     */
+    public Mono<CreditResponse> get(String id, Function<String, Mono<CreditResponse>> loader) {
+        if (cache == null) {
+            return loader.apply(id);
+        }
+        return Mono.fromFuture(() -> cache.get(id, (key, executor) -> loader.apply(key).toFuture())
+                .thenApply(Function.identity()));
+    }
+
+    public void invalidate(String id) {
+        if (cache != null) {
+            cache.synchronous().invalidate(id);
+        }
+    }
+}
@@ -1,36 +1,64 @@
 package com.nttdata.credit.service.impl;
 
+import com.mongodb.ErrorCategory;
+import com.mongodb.bulk.BulkWriteError;
+import com.nttdata.credit.logging.LogContext;
 import com.nttdata.credit.model.entity.Client;
 import com.nttdata.credit.model.entity.Credit;
 import com.nttdata.credit.model.entity.Payment;
+import com.nttdata.credit.model.enums.BulkCreditStatus;
+import com.nttdata.credit.model.enums.BulkPaymentStatus;
+import com.nttdata.credit.model.exception.CreditConflictException;
+import com.nttdata.credit.model.exception.CreditException;
 import com.nttdata.credit.model.exception.CreditNotFoundException;
+import com.nttdata.credit.model.exception.CreditPreconditionFailedException;
+import com.nttdata.credit.model.exception.CreditServiceUnavailableException;
 import com.nttdata.credit.model.exception.InvalidCreditDataException;
 import com.nttdata.credit.model.exception.PaymentDataException;
+import com.nttdata.credit.model.request.BulkPaymentRequest;
+import com.nttdata.credit.model.request.CreditPatchRequest;
 import com.nttdata.credit.model.request.CreditRequest;
 import com.nttdata.credit.model.request.PaymentRequest;
 import com.nttdata.credit.model.response.BalanceResponse;
+import com.nttdata.credit.model.response.BulkCreditResponse;
+import com.nttdata.credit.model.response.BulkPaymentResponse;
+import com.nttdata.credit.model.response.CreditPageResponse;
 import com.nttdata.credit.model.response.CreditResponse;
+import com.nttdata.credit.model.response.CreditSummary;
 import com.nttdata.credit.model.response.PaymentResponse;
 import com.nttdata.credit.repository.CreditRespository;
+import com.nttdata.credit.repository.PaymentRepository;
 import com.nttdata.credit.service.ClientService;
 import com.nttdata.credit.service.CreditService;
 import com.nttdata.credit.strategy.ValidationStrategy;
 import com.nttdata.credit.util.BalanceConverter;
 import com.nttdata.credit.util.CreditConverter;
+import com.nttdata.credit.util.ETags;
+import com.nttdata.credit.util.PageTokenConverter;
 import com.nttdata.credit.util.PaymentConverter;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.timelimiter.annotation.TimeLimiter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 
 import java.util.*;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static com.nttdata.credit.util.constats.ConstantsMessage.CREDIT_NOT_FOUND;
+import static com.nttdata.credit.util.constats.ConstantsMessage.CREDIT_VERSION_MISMATCH;
+import static com.nttdata.credit.util.constats.ConstantsMessage.PERSONAL_CLIENT_ONE_CREDIT;
+import static com.nttdata.credit.util.constats.ConstantsMessage.UNKNOWN_CLIENT_TYPE;
 
 /**
  * Implementation of the credit service.
@@ -39,9 +67,17 @@ import static com.nttdata.credit.util.constats.ConstantsMessage.CREDIT_NOT_FOUND
 @Slf4j
 @RequiredArgsConstructor
 public class CreditServiceImpl implements CreditService {
+    private static final int MAX_PAYMENTS_PAGE_SIZE = 1000;
+    private static final int MAX_CREDITS_PAGE_SIZE = 500;
+    private static final int CLIENT_LOOKUP_CONCURRENCY = 16;
+    private static final Predicate<Throwable> UNEXPECTED = e -> !(e instanceof CreditException);
+
     private final CreditRespository creditRespository;
+    private final PaymentRepository paymentRepository;
     private final ClientService clientService;
     private final ValidationStrategy validationStrategy;
+    private final PaymentBatchProcessor paymentBatchProcessor;
+    private final CreditReadCache creditReadCache;
     /**
      * Retrieves all credits.
      *
@@ -51,13 +87,62 @@ public class CreditServiceImpl implements CreditService {
     @CircuitBreaker(name = "credit", fallbackMethod = "fallbackGetAllCredits")
     @TimeLimiter(name = "credit")
     public Flux<CreditResponse> getAllCredits() {
-        log.info("Fetching all Credits");
+        log.debug("Fetching all Credits");
         return creditRespository.findAll()
+                .map(CreditConverter::toCreditResponse);
+    }
+    /**
+     * Retrieves all credits as summaries, reading only the summary fields from the database.
+     *
+     * @return a flux of credit summaries.
+     */
+    @Override
+    @CircuitBreaker(name = "credit", fallbackMethod = "fallbackGetAllCreditSummaries")
+    @TimeLimiter(name = "credit")
+    public Flux<CreditSummary> getAllCreditSummaries() {
+        log.debug("Fetching all Credit summaries");
+        return creditRespository.findAllSummaries();
+    }
+    /**
+     * Retrieves one page of credits ordered by ID, resuming after the given continuation token.
+     *
+     * @param token continuation token returned with the previous page, or null for the first page.
+     * @param size  maximum number of credits in the page.
+     * @return the page with the token of the next one, which is null on the last page.
+     */
+    @Override
+    @CircuitBreaker(name = "credit", fallbackMethod = "fallbackGetCreditsPage")
+    @TimeLimiter(name = "credit")
+    public Mono<CreditPageResponse> getCreditsPage(String token, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_CREDITS_PAGE_SIZE));
+        return Mono.fromCallable(() -> PageTokenConverter.toLastId(token))
+                .flatMapMany(lastId -> creditRespository.findByIdGreaterThan(lastId,
+                        PageRequest.of(0, pageSize + 1, Sort.by("id"))))
                 .map(CreditConverter::toCreditResponse)
-                .onErrorMap(e -> new Exception("Error fetching all Credits", e));
+                .collectList()
+                .map(credits -> {
+                    if (credits.size() <= pageSize) {
+                        return new CreditPageResponse(credits, null);
+                    }
+                    List<CreditResponse> content = credits.subList(0, pageSize);
+                    return new CreditPageResponse(content, PageTokenConverter.toToken(content.get(pageSize - 1).getId()));
+                });
     }
     /**
-     * Retrieves a credit by its ID.
+     * Streams every credit as the MongoDB cursor delivers it. It is not bound by the
+     * time limiter, so a full scan can take as long as the consumer needs to read it.
+     *
+     * @return a flux of credit responses.
+     */
+    @Override
+    @CircuitBreaker(name = "credit", fallbackMethod = "fallbackGetAllCredits")
+    public Flux<CreditResponse> streamAllCredits() {
+        log.debug("Streaming all Credits");
+        return creditRespository.findAll()
+                .map(CreditConverter::toCreditResponse);
+    }
+    /**
+     * Retrieves a credit by its ID, through the read cache when it is enabled.
      *
      * @param idCredit the credit ID.
      * @return a credit response.
@@ -67,10 +152,39 @@ public class CreditServiceImpl implements CreditService {
     @TimeLimiter(name = "credit")
     public Mono<CreditResponse> getCreditById(String idCredit) {
         log.debug("Fetching Credit with id: {}", idCredit);
-        return creditRespository.findById(idCredit)
-                .map(CreditConverter::toCreditResponse)
-                .switchIfEmpty(Mono.error(new CreditNotFoundException(CREDIT_NOT_FOUND + idCredit)))
-                .onErrorMap(e -> new Exception("Error fetching Credit by id", e));
+        return creditReadCache.get(idCredit, id -> creditRespository.findById(id)
+                        .map(CreditConverter::toCreditResponse))
+                .switchIfEmpty(Mono.error(new CreditNotFoundException(CREDIT_NOT_FOUND + idCredit)));
+    }
+    /**
+     * Retrieves the current ETag of a credit, reading only its version.
+     *
+     * @param idCredit the credit ID.
+     * @return the ETag, or empty when the credit does not exist.
+     */
+    @Override
+    @CircuitBreaker(name = "credit", fallbackMethod = "fallbackGetCreditETag")
+    @TimeLimiter(name = "credit")
+    public Mono<String> getCreditETag(String idCredit) {
+        return creditRespository.findVersionById(idCredit)
+                .map(credit -> ETags.of(credit.getVersion()));
+    }
+
+    /**
+     * Retrieves the current ETag of the payments of a credit, from the payment records themselves.
+     * The credit version is not used, because a payment debits the balance before its record is
+     * written, and a list read in between would be tagged with the new version.
+     *
+     * @param idCredit the credit ID.
+     * @return the ETag, or empty when the credit has no payments.
+     */
+    @Override
+    @CircuitBreaker(name = "credit", fallbackMethod = "fallbackGetPaymentsETag")
+    @TimeLimiter(name = "credit")
+    public Mono<String> getPaymentsETag(String idCredit) {
+        return paymentRepository.findFirstByCreditIdOrderByDateDescIdDesc(idCredit)
+                .zipWith(paymentRepository.countByCreditId(idCredit),
+                        (latest, count) -> ETags.ofPayments(count, latest));
     }
     /**
      * Creates a new credit.
@@ -90,117 +204,197 @@ public class CreditServiceImpl implements CreditService {
         Credit credit = CreditConverter.toCredit(creditRequest);
         Mono<Client> clientMono = clientService.getClientById(credit.getClientId(),authorizationHeader);
         return clientMono.flatMap(client -> validateAndSaveAccount(client, credit))
+                .flatMap(response -> saveInitialPayments(response, creditRequest.getPayments()))
                 .switchIfEmpty(Mono.error(new CreditNotFoundException("credit not found with Client id: ")))
-                .doOnError(e -> log.error("Error creating credit", e))
-                .onErrorMap(e -> new Exception("Error creating credit", e));
+                .doOnEach(LogContext.onError(UNEXPECTED, e -> log.error("Error creating credit", e)));
     }
 
+    /**
+     * Creates a batch of credits. Each distinct client is resolved once, the client rules
+     * are checked for the whole batch with a single query, and the accepted credits are
+     * written with one unordered bulk insert.
+     *
+     * @param creditRequests      the credit requests.
+     * @param authorizationHeader the authorization header forwarded to the client service.
+     * @return the outcome of each request, in request order.
+     */
+    @Override
+    @CircuitBreaker(name = "credit", fallbackMethod = "fallbackCreateCredits")
+    public Flux<BulkCreditResponse> createCredits(List<CreditRequest> creditRequests, String authorizationHeader) {
+        if (creditRequests == null || creditRequests.isEmpty()) {
+            log.warn("Invalid bulk Credit data: {}", creditRequests);
+            return Flux.error(new InvalidCreditDataException("Invalid Credit data"));
+        }
+        log.info("Creating {} Credits in bulk", creditRequests.size());
+        List<Credit> credits = creditRequests.stream()
+                .map(CreditConverter::toCredit)
+                .collect(Collectors.toList());
+        return resolveClientTypes(credits, authorizationHeader)
+                .flatMap(clientTypes -> validationStrategy.validateBatch(credits, clientTypes))
+                .flatMap(rejections -> insertAccepted(credits, rejections))
+                .flatMapMany(responses -> saveInitialPayments(creditRequests, responses)
+                        .thenMany(Flux.fromIterable(responses)))
+                .doOnEach(LogContext.onError(UNEXPECTED, e -> log.error("Error creating Credits in bulk", e)));
+    }
 
     /**
-     * Updates an existing credit.
+     * Replaces the fields of an existing credit with a single conditional update.
+     * The client type and the payments of the credit are kept.
      *
-     * @param id            the credit ID.
-     * @param creditRequest the credit request.
+     * @param id              the credit ID.
+     * @param creditRequest   the credit request.
+     * @param expectedVersion the version from {@code If-Match}, or null to update any version.
      * @return a credit response.
      */
     @Override
     @CircuitBreaker(name = "credit", fallbackMethod = "fallbackUpdateCredit")
     @TimeLimiter(name = "credit")
-    public Mono<CreditResponse> updateCredit(String id, CreditRequest creditRequest) {
+    public Mono<CreditResponse> updateCredit(String id, CreditRequest creditRequest, Long expectedVersion) {
         if (creditRequest == null ) {
             log.warn("Invalid Credit data for update: {}", creditRequest);
             return Mono.error(new InvalidCreditDataException("Invalid Credit data"));
         }
         log.debug("Updating Credit with id: {}", id);
-        return creditRespository.findById(id)
-                .switchIfEmpty(Mono.error(new CreditNotFoundException(CREDIT_NOT_FOUND + id)))
-                .flatMap(existingClient -> {
-                    Credit updateCredit = CreditConverter.toCredit(creditRequest);
-                    updateCredit.setId(existingClient.getId());
-                    return creditRespository.save(updateCredit);
-                })
-                .map(CreditConverter::toCreditResponse)
-                .onErrorMap(e -> new Exception("Error updating Credit", e));
+        return writeVersioned(id, CreditConverter.toUpdate(creditRequest), expectedVersion);
+    }
+    /**
+     * Changes only the fields present in the patch, with a single conditional update.
+     *
+     * @param id              the credit ID.
+     * @param patch           the fields to change.
+     * @param expectedVersion the version from {@code If-Match}, or null to update any version.
+     * @return the updated credit.
+     */
+    @Override
+    @CircuitBreaker(name = "credit", fallbackMethod = "fallbackPatchCredit")
+    @TimeLimiter(name = "credit")
+    public Mono<CreditResponse> patchCredit(String id, CreditPatchRequest patch, Long expectedVersion) {
+        Update update = patch != null ? CreditConverter.toUpdate(patch) : new Update();
+        if (update.getUpdateObject().isEmpty()) {
+            log.warn("Empty Credit patch for id: {}", id);
+            return Mono.error(new InvalidCreditDataException("Invalid Credit data"));
+        }
+        log.debug("Patching Credit with id: {}", id);
+        return writeVersioned(id, update, expectedVersion);
     }
     /**
-     * Deletes a credit by its ID.
+     * Deletes a credit and its payments. The credit is removed with a single conditional delete.
      *
-     * @param id the credit ID.
+     * @param id              the credit ID.
+     * @param expectedVersion the version from {@code If-Match}, or null to delete any version.
      * @return a void Mono.
      */
     @Override
     @CircuitBreaker(name = "credit", fallbackMethod = "fallbackDeleteCredit")
     @TimeLimiter(name = "credit")
-    public Mono<Void> deleteCredit(String id) {
+    public Mono<Void> deleteCredit(String id, Long expectedVersion) {
         log.debug("Deleting Credit with id: {}", id);
-        return creditRespository.findById(id)
-                .switchIfEmpty(Mono.error(new CreditNotFoundException(CREDIT_NOT_FOUND + id)))
-                .flatMap(existingClient -> creditRespository.delete(existingClient))
-                .onErrorMap(e -> new Exception("Error deleting Credit", e));
+        return creditRespository.deleteVersioned(id, expectedVersion)
+                .flatMap(deleted -> Boolean.TRUE.equals(deleted)
+                        ? paymentRepository.deleteByCreditId(id)
+                        : writeRejected(id, expectedVersion))
+                .doOnSuccess(deleted -> creditReadCache.invalidate(id));
     }
 
+    /**
+     * Applies a payment to a credit with a conditional update of its balance, so concurrent
+     * payments on the same credit cannot overwrite each other, then records the payment in
+     * the payment collection, restoring the balance if that second write fails.
+     * The two writes run detached from the caller, so a timeout or a cancelled request
+     * cannot stop them between the debit and the payment record.
+     *
+     * @param id             the credit ID.
+     * @param paymentRequest the payment request.
+     * @return the payment response.
+     */
     @Override
     @CircuitBreaker(name = "credit", fallbackMethod = "fallbackPayByCreditId")
     @TimeLimiter(name = "credit")
     public Mono<PaymentResponse> payByCreditId(String id, PaymentRequest paymentRequest) {
-        return creditRespository.findById(id)
-                .switchIfEmpty(Mono.error(new CreditNotFoundException(CREDIT_NOT_FOUND + id)))
-                .flatMap(credit -> Mono.justOrEmpty(paymentRequest)
-                        .switchIfEmpty(Mono.defer(() -> {
-                            log.warn("Invalid Payment data: {}", paymentRequest);
-                            return Mono.error(new PaymentDataException("Invalid Payment data"));
-                        }))
-                        .flatMap(req -> {
-                            double newOutstandingBalance = credit.getOutstandingBalance() - req.getAmount();
-                            if (newOutstandingBalance < 0) {
-                                log.warn("Payment amount exceeds outstanding balance: {}", req.getAmount());
-                                return Mono.error(new PaymentDataException("Payment amount exceeds outstanding balance"));
-                            }
-                            credit.setOutstandingBalance(Math.round(newOutstandingBalance));
-                            Payment payment = new Payment(req.getAmount(), new Date(), "new Pay");
-                            Optional.ofNullable(credit.getPayments())
-                                    .orElseGet(() -> {
-                                        List<Payment> payments = new ArrayList<>();
-                                        credit.setPayments(payments);
-                                        return payments;
-                                    })
-                                    .add(payment);
-
-                            return creditRespository.save(credit)
-                                    .then(Mono.just(PaymentConverter.toPaymentResponse(payment)));
-                        })
-                )
-                .doOnError(e -> log.error("Error creating Payment", e))
-                .onErrorMap(e -> new Exception("Error creating Payment", e));
+        if (paymentRequest == null || paymentRequest.getAmount() < 0) {
+            log.warn("Invalid Payment data: {}", paymentRequest);
+            return Mono.error(new PaymentDataException("Invalid Payment data"));
+        }
+        Payment payment = PaymentConverter.toPayment(id, paymentRequest);
+        return applyPayment(payment)
+                .map(PaymentConverter::toPaymentResponse)
+                .switchIfEmpty(Mono.defer(() -> rejectPayment(id, payment)))
+                .doOnEach(LogContext.onError(UNEXPECTED, e -> log.error("Error creating Payment", e)));
+    }
+
+    /**
+     * Applies a stream of payments across many credits in bulk-write chunks.
+     *
+     * @param paymentRequests the payments, each one naming its credit.
+     * @return the outcome of each payment, in request order.
+     */
+    @Override
+    @CircuitBreaker(name = "credit", fallbackMethod = "fallbackPayInBulk")
+    public Flux<BulkPaymentResponse> payInBulk(Flux<BulkPaymentRequest> paymentRequests) {
+        log.info("Applying payments in bulk");
+        return paymentBatchProcessor.process(paymentRequests)
+                .doOnNext(response -> {
+                    if (response.getStatus() == BulkPaymentStatus.APPLIED) {
+                        creditReadCache.invalidate(response.getCreditId());
+                    }
+                })
+                .doOnEach(LogContext.onError(UNEXPECTED, e -> log.error("Error applying payments in bulk", e)));
     }
 
+    /**
+     * Streams a keyset page of the payments of a credit, oldest first.
+     *
+     * @param id        the credit ID.
+     * @param afterDate only payments after this date are returned, or all when null.
+     * @param afterId   ID of the last payment of the previous page, used to break date ties.
+     * @param limit     maximum number of payments to return.
+     * @return a flux of payment responses.
+     */
     @Override
     @CircuitBreaker(name = "credit", fallbackMethod = "fallbackGetAllPaysByCreditId")
     @TimeLimiter(name = "credit")
-    public Flux<PaymentResponse> getAllPaysByCredirId(String id) {
-        return creditRespository.findById(id)
-                .flatMapMany(credit -> {
-                    List<PaymentResponse> paymentResponses = credit.getPayments().stream()
-                            .map(PaymentConverter::toPaymentResponse)
-                            .collect(Collectors.toList());
-                    return Flux.fromIterable(paymentResponses);
-                });
+    public Flux<PaymentResponse> getAllPaysByCredirId(String id, Date afterDate, String afterId, int limit) {
+        Date after = afterDate != null ? afterDate : new Date(0L);
+        PageRequest page = PageRequest.ofSize(Math.max(1, Math.min(limit, MAX_PAYMENTS_PAGE_SIZE)));
+        Flux<Payment> payments = afterId == null
+                ? paymentRepository.findPageAfter(id, after, page)
+                : paymentRepository.findPageAfter(id, after, afterId, page);
+        return payments.map(PaymentConverter::toPaymentResponse);
     }
 
+    /**
+     * Retrieves the balance of every credit of a client, and their total,
+     * reading only the balance fields of the credits.
+     *
+     * @param idClient the client ID.
+     * @return a balance response.
+     */
     @Override
     @CircuitBreaker(name = "credit", fallbackMethod = "fallbackGetBalanceByClientId")
     @TimeLimiter(name = "credit")
-    public Flux<BalanceResponse> getBalanceByClientId(String idClient) {
-        return creditRespository.findByClientId(idClient)
-                .map(creditCard -> {
-                    if (creditCard == null) {
-                        throw new CreditNotFoundException(CREDIT_NOT_FOUND + idClient);
-                    }
-                    return BalanceConverter.toBalanceResponse(Collections.singletonList(creditCard));
-                })
+    public Mono<BalanceResponse> getBalanceByClientId(String idClient) {
+        return creditRespository.findBalancesByClientId(idClient)
+                .collectList()
+                .filter(credits -> !credits.isEmpty())
+                .map(BalanceConverter::toBalanceResponse)
                 .switchIfEmpty(Mono.error(new CreditNotFoundException("Account not found with id: " + idClient)))
-                .doOnError(e -> log.error("Error getting balance for Credit ", e))
-                .onErrorMap(e -> new Exception("Error getting balance for Credit", e));
+                .doOnEach(LogContext.onError(UNEXPECTED, e -> log.error("Error getting balance for Credit ", e)));
+    }
+
+    /**
+     * Retrieves the current ETag of the balances of a client, reading only the IDs and versions of its credits.
+     *
+     * @param idClient the client ID.
+     * @return the ETag, or empty when the client has no credits.
+     */
+    @Override
+    @CircuitBreaker(name = "credit", fallbackMethod = "fallbackGetBalanceETag")
+    @TimeLimiter(name = "credit")
+    public Mono<String> getBalanceETag(String idClient) {
+        return creditRespository.findVersionsByClientId(idClient)
+                .collectList()
+                .filter(credits -> !credits.isEmpty())
+                .map(ETags::ofAll);
     }
 
     @Override
@@ -210,8 +404,138 @@ public class CreditServiceImpl implements CreditService {
         return creditRespository.findByClientId(idClient)
                 .switchIfEmpty(Mono.error(new CreditNotFoundException("Credit not found with client id: " + idClient)))
                 .map(CreditConverter::toCreditResponse)
-                .doOnError(e -> log.error("Error getting Credit for  client id ", e))
-                .onErrorMap(e -> new Exception("Error getting Credit for  client id", e));
+                .doOnEach(LogContext.onError(UNEXPECTED, e -> log.error("Error getting Credit for  client id ", e)));
+    }
+
+    @Override
+    @CircuitBreaker(name = "credit", fallbackMethod = "fallbackGetCreditSummariesByClientId")
+    @TimeLimiter(name = "credit")
+    public Flux<CreditSummary> getCreditSummariesByClientId(String idClient) {
+        return creditRespository.findSummariesByClientId(idClient)
+                .switchIfEmpty(Mono.error(new CreditNotFoundException("Credit not found with client id: " + idClient)))
+                .doOnEach(LogContext.onError(UNEXPECTED, e -> log.error("Error getting Credit summaries for client id ", e)));
+    }
+
+    private Mono<Map<String, String>> resolveClientTypes(List<Credit> credits, String authorizationHeader) {
+        Set<String> clientIds = credits.stream().map(Credit::getClientId).collect(Collectors.toSet());
+        return Flux.fromIterable(clientIds)
+                .flatMap(clientId -> clientService.getClientById(clientId, authorizationHeader)
+                        .map(client -> Map.entry(clientId, Objects.toString(client.getType(), "")))
+                        .onErrorResume(e -> {
+                            log.warn("Error resolving client {}", clientId, e);
+                            return Mono.empty();
+                        }), CLIENT_LOOKUP_CONCURRENCY)
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue);
+    }
+
+    private Mono<List<BulkCreditResponse>> insertAccepted(List<Credit> credits, Map<Integer, String> rejections) {
+        List<Integer> acceptedIndexes = IntStream.range(0, credits.size())
+                .filter(i -> !rejections.containsKey(i))
+                .boxed()
+                .collect(Collectors.toList());
+        List<Credit> accepted = acceptedIndexes.stream().map(credits::get).collect(Collectors.toList());
+        return creditRespository.insertAllUnordered(accepted)
+                .map(failures -> {
+                    List<BulkCreditResponse> responses = new ArrayList<>(credits.size());
+                    for (int i = 0; i < credits.size(); i++) {
+                        responses.add(new BulkCreditResponse(i, null, BulkCreditStatus.REJECTED, rejections.get(i)));
+                    }
+                    for (int k = 0; k < acceptedIndexes.size(); k++) {
+                        BulkCreditResponse response = responses.get(acceptedIndexes.get(k));
+                        BulkWriteError failure = failures.get(k);
+                        if (failure == null) {
+                            response.setStatus(BulkCreditStatus.CREATED);
+                            response.setId(accepted.get(k).getId());
+                            response.setMessage(null);
+                        } else if (ErrorCategory.fromErrorCode(failure.getCode()) == ErrorCategory.DUPLICATE_KEY) {
+                            response.setStatus(BulkCreditStatus.REJECTED);
+                            response.setMessage(PERSONAL_CLIENT_ONE_CREDIT);
+                        } else {
+                            response.setStatus(BulkCreditStatus.FAILED);
+                            response.setMessage(failure.getMessage());
+                        }
+                    }
+                    return responses;
+                });
+    }
+
+    private Mono<Void> saveInitialPayments(List<CreditRequest> creditRequests, List<BulkCreditResponse> responses) {
+        List<Payment> payments = responses.stream()
+                .filter(response -> response.getStatus() == BulkCreditStatus.CREATED)
+                .flatMap(response -> Optional.ofNullable(creditRequests.get(response.getIndex()).getPayments())
+                        .orElse(Collections.emptyList()).stream()
+                        .map(payment -> PaymentConverter.toPayment(response.getId(), payment)))
+                .collect(Collectors.toList());
+        return payments.isEmpty() ? Mono.empty() : paymentRepository.insert(payments).then();
+    }
+
+    private Mono<CreditResponse> saveInitialPayments(CreditResponse response, List<Payment> payments) {
+        if (payments == null || payments.isEmpty()) {
+            return Mono.just(response);
+        }
+        return paymentRepository.insert(payments.stream()
+                        .map(payment -> PaymentConverter.toPayment(response.getId(), payment))
+                        .collect(Collectors.toList()))
+                .collectList()
+                .map(savedPayments -> {
+                    response.setPayments(savedPayments);
+                    return response;
+                });
+    }
+
+    /**
+     * Subscribes to the debit and the payment record on its own, and hands the result over
+     * through a sink. Cancelling the returned Mono only drops the result.
+     */
+    private Mono<Payment> applyPayment(Payment payment) {
+        return Mono.deferContextual(context -> {
+            Sinks.One<Payment> applied = Sinks.one();
+            creditRespository.decrementBalance(payment.getCreditId(), payment.getAmount())
+                    .doOnNext(credit -> creditReadCache.invalidate(payment.getCreditId()))
+                    .flatMap(credit -> savePayment(payment))
+                    .contextWrite(context)
+                    .subscribe(applied::tryEmitValue, applied::tryEmitError, applied::tryEmitEmpty);
+            return applied.asMono();
+        });
+    }
+
+    private Mono<Payment> savePayment(Payment payment) {
+        return paymentRepository.save(payment)
+                .onErrorResume(e -> creditRespository.restoreBalance(payment.getCreditId(), payment.getAmount())
+                        .then(Mono.error(e)));
+    }
+
+    private Mono<PaymentResponse> rejectPayment(String id, Payment payment) {
+        return creditRespository.existsById(id)
+                .flatMap(exists -> {
+                    if (Boolean.FALSE.equals(exists)) {
+                        return Mono.error(new CreditNotFoundException(CREDIT_NOT_FOUND + id));
+                    }
+                    log.warn("Payment amount exceeds outstanding balance: {}", payment.getAmount());
+                    return Mono.error(new PaymentDataException("Payment amount exceeds outstanding balance"));
+                });
+    }
+
+    private Mono<CreditResponse> writeVersioned(String id, Update update, Long expectedVersion) {
+        return creditRespository.updateVersioned(id, update, expectedVersion)
+                .switchIfEmpty(Mono.defer(() -> writeRejected(id, expectedVersion)))
+                .onErrorMap(DuplicateKeyException.class, e -> new CreditConflictException(PERSONAL_CLIENT_ONE_CREDIT))
+                .doOnSuccess(updated -> creditReadCache.invalidate(id))
+                .map(CreditConverter::toCreditResponse);
+    }
+
+    /**
+     * A conditional write matched nothing. Without an expected version the credit is missing;
+     * with one, a lookup tells a missing credit from a newer version.
+     */
+    private <T> Mono<T> writeRejected(String id, Long expectedVersion) {
+        if (expectedVersion == null) {
+            return Mono.error(new CreditNotFoundException(CREDIT_NOT_FOUND + id));
+        }
+        return creditRespository.existsById(id)
+                .flatMap(exists -> Mono.error(Boolean.TRUE.equals(exists)
+                        ? new CreditPreconditionFailedException(CREDIT_VERSION_MISMATCH + id)
+                        : new CreditNotFoundException(CREDIT_NOT_FOUND + id)));
     }
 
     private Mono<CreditResponse> validateAndSaveAccount(Client client, Credit credit) {
@@ -221,48 +545,92 @@ public class CreditServiceImpl implements CreditService {
         if (validationFunction != null) {
             return validationFunction.apply(credit);
         } else {
-            return Mono.error(new CreditNotFoundException("Unknown client type"));
+            return Mono.error(new InvalidCreditDataException(UNKNOWN_CLIENT_TYPE));
         }
     }
 
 
     public Flux<CreditResponse> fallbackGetAllCredits(Exception exception) {
-        log.error("Fallback method for getAllCredits", exception);
-        return Flux.error(new Exception("Fallback method for getAllCredits"));
+        return Flux.error(fallbackError("getAllCredits", exception));
+    }
+
+    public Flux<CreditSummary> fallbackGetAllCreditSummaries(Exception exception) {
+        return Flux.error(fallbackError("getAllCreditSummaries", exception));
+    }
+
+    public Mono<CreditPageResponse> fallbackGetCreditsPage(Exception exception) {
+        return Mono.error(fallbackError("getCreditsPage", exception));
     }
 
     public Mono<CreditResponse> fallbackGetCreditById(Exception exception) {
-        log.error("Fallback method for getCreditById", exception);
-        return Mono.error(new Exception("Fallback method for getCreditById"));
+        return Mono.error(fallbackError("getCreditById", exception));
+    }
+
+    public Mono<String> fallbackGetCreditETag(Exception exception) {
+        return Mono.error(fallbackError("getCreditETag", exception));
+    }
+
+    public Mono<String> fallbackGetPaymentsETag(Exception exception) {
+        return Mono.error(fallbackError("getPaymentsETag", exception));
     }
 
     public Mono<CreditResponse> fallbackCreateCredit(Exception exception) {
-        log.error("Fallback method for createCredit", exception);
-        return Mono.error(new Exception("Fallback method for createCredit"));
+        return Mono.error(fallbackError("createCredit", exception));
+    }
+
+    public Flux<BulkCreditResponse> fallbackCreateCredits(Exception exception) {
+        return Flux.error(fallbackError("createCredits", exception));
+    }
+
+    public Mono<CreditResponse> fallbackPatchCredit(Exception exception) {
+        return Mono.error(fallbackError("patchCredit", exception));
     }
 
     public Mono<CreditResponse> fallbackUpdateCredit(Exception exception) {
-        log.error("Fallback method for updateCredit", exception);
-        return Mono.error(new Exception("Fallback method for updateCredit"));
+        return Mono.error(fallbackError("updateCredit", exception));
     }
 
     public Mono<Void> fallbackDeleteCredit(Exception exception) {
-        log.error("Fallback method for deleteCredit", exception);
-        return Mono.error(new Exception("Fallback method for deleteCredit"));
+        return Mono.error(fallbackError("deleteCredit", exception));
+    }
+
+    public Mono<PaymentResponse> fallbackPayByCreditId(Exception exception) {
+        return Mono.error(fallbackError("payByCreditId", exception));
+    }
+
+    public Flux<BulkPaymentResponse> fallbackPayInBulk(Exception exception) {
+        return Flux.error(fallbackError("payInBulk", exception));
     }
 
     public Flux<PaymentResponse> fallbackGetAllPaysByCreditId(Exception exception) {
-        log.error("Fallback method for getAllPaysByCreditId", exception);
-        return Flux.error(new Exception("Fallback method for getAllPaysByCreditId"));
+        return Flux.error(fallbackError("getAllPaysByCreditId", exception));
     }
 
-    public Flux<BalanceResponse> fallbackGetBalanceByClientId(Exception exception) {
-        log.error("Fallback method for getBalanceByClientId", exception);
-        return Flux.error(new Exception("Fallback method for getBalanceByClientId"));
+    public Mono<BalanceResponse> fallbackGetBalanceByClientId(Exception exception) {
+        return Mono.error(fallbackError("getBalanceByClientId", exception));
+    }
+
+    public Mono<String> fallbackGetBalanceETag(Exception exception) {
+        return Mono.error(fallbackError("getBalanceETag", exception));
     }
 
     public Flux<CreditResponse> fallbackGetCreditByClientId(Exception exception) {
-        log.error("Fallback method for getCreditByClientId", exception);
-        return Flux.error(new Exception("Fallback method for getCreditByClientId"));
+        return Flux.error(fallbackError("getCreditByClientId", exception));
+    }
+
+    public Flux<CreditSummary> fallbackGetCreditSummariesByClientId(Exception exception) {
+        return Flux.error(fallbackError("getCreditSummariesByClientId", exception));
+    }
+
+    /**
+     * Business errors pass through the fallback unchanged. Anything else, such as an open
+     * circuit, a timeout or a database failure, is reported as the service being unavailable.
+     */
+    private static Throwable fallbackError(String operation, Exception exception) {
+        if (exception instanceof CreditException) {
+            return exception;
+        }
+        log.warn("Fallback method for {}: {}", operation, exception.toString());
+        return new CreditServiceUnavailableException("Credit service unavailable for " + operation, exception);
     }
 }
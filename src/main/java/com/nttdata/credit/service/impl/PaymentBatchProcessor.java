@@ -0,0 +1,208 @@
+package com.nttdata.credit.service.impl;
+
+import com.nttdata.credit.model.entity.Credit;
+import com.nttdata.credit.model.entity.Payment;
+import com.nttdata.credit.model.enums.BulkPaymentStatus;
+import com.nttdata.credit.model.request.BulkPaymentRequest;
+import com.nttdata.credit.model.response.BulkPaymentResponse;
+import com.nttdata.credit.repository.CreditRespository;
+import com.nttdata.credit.repository.PaymentRepository;
+import com.nttdata.credit.util.PaymentConverter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.function.Tuple2;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Applies a stream of payments in chunks. Each chunk reads the balances of its credits
+ * with one query, decides every payment in memory, decrements all balances with one
+ * bulk write and stores the accepted payments with one unordered insert.
+ */
+@Slf4j
+@Component
+public class PaymentBatchProcessor {
+    private final CreditRespository creditRespository;
+    private final PaymentRepository paymentRepository;
+    private final int chunkSize;
+
+    public PaymentBatchProcessor(CreditRespository creditRespository, PaymentRepository paymentRepository
+            , @Value("${credit.payments.bulk-chunk-size:500}") int chunkSize) {
+        this.creditRespository = creditRespository;
+        this.paymentRepository = paymentRepository;
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    public Flux<BulkPaymentResponse> process(Flux<BulkPaymentRequest> paymentRequests) {
+        return paymentRequests.index()
+                .buffer(chunkSize)
+                .concatMap(this::processChunk);
+    }
+
+    private Flux<BulkPaymentResponse> processChunk(List<Tuple2<Long, BulkPaymentRequest>> chunk) {
+        List<PaymentItem> items = chunk.stream()
+                .map(indexed -> new PaymentItem(indexed.getT1(), indexed.getT2()))
+                .collect(Collectors.toList());
+        Set<String> creditIds = items.stream()
+                .filter(item -> item.status == null)
+                .map(item -> item.request.getCreditId())
+                .collect(Collectors.toSet());
+        Mono<Map<String, Double>> balances = creditIds.isEmpty()
+                ? Mono.just(new HashMap<>())
+                : creditRespository.findBalancesByIdIn(creditIds).collectMap(Credit::getId, Credit::getOutstandingBalance);
+        return applyDetached(balances
+                        .map(current -> accept(items, current))
+                        .flatMap(amounts -> creditRespository.decrementBalances(amounts, UUID.randomUUID().toString()))
+                        .flatMap(updated -> retryNotUpdated(items, updated))
+                        .then(Mono.defer(() -> savePayments(items))))
+                .thenMany(Flux.fromIterable(items))
+                .map(PaymentItem::toResponse);
+    }
+
+    /**
+     * Subscribes to the writes of a chunk on their own, so a cancelled request cannot stop them
+     * between the debit and the payment insert or its rollback. Cancelling only drops the result.
+     */
+    private static Mono<Void> applyDetached(Mono<Void> writes) {
+        return Mono.deferContextual(context -> {
+            Sinks.Empty<Void> applied = Sinks.empty();
+            writes.contextWrite(context)
+                    .subscribe(null, applied::tryEmitError, applied::tryEmitEmpty);
+            return applied.asMono();
+        });
+    }
+
+    /**
+     * Walks the chunk in order against the balances read from the database,
+     * rejecting payments of unknown credits and payments the remaining balance does not cover.
+     *
+     * @return the total accepted amount, by credit ID.
+     */
+    private Map<String, Double> accept(List<PaymentItem> items, Map<String, Double> balances) {
+        Map<String, Double> remaining = new HashMap<>(balances);
+        Map<String, Double> amounts = new HashMap<>();
+        for (PaymentItem item : items) {
+            if (item.status != null) {
+                continue;
+            }
+            String creditId = item.request.getCreditId();
+            double amount = item.request.getAmount();
+            Double balance = remaining.get(creditId);
+            if (balance == null) {
+                item.status = BulkPaymentStatus.NOT_FOUND;
+            } else if (balance < amount) {
+                item.status = BulkPaymentStatus.OVERPAYMENT;
+            } else {
+                item.status = BulkPaymentStatus.APPLIED;
+                remaining.put(creditId, balance - amount);
+                amounts.merge(creditId, amount, Double::sum);
+            }
+        }
+        return amounts;
+    }
+
+    /**
+     * Credits changed by another writer between the read and the bulk write were not updated.
+     * Their payments are applied one by one with the single-payment conditional update.
+     */
+    private Mono<Void> retryNotUpdated(List<PaymentItem> items, Set<String> updated) {
+        return Flux.fromIterable(items)
+                .filter(item -> item.status == BulkPaymentStatus.APPLIED
+                        && !updated.contains(item.request.getCreditId()))
+                .concatMap(item -> creditRespository.decrementBalance(item.request.getCreditId(), item.request.getAmount())
+                        .map(credit -> BulkPaymentStatus.APPLIED)
+                        .switchIfEmpty(Mono.defer(() -> creditRespository.existsById(item.request.getCreditId())
+                                .map(exists -> exists ? BulkPaymentStatus.OVERPAYMENT : BulkPaymentStatus.NOT_FOUND)))
+                        .doOnNext(status -> item.status = status))
+                .then();
+    }
+
+    /**
+     * Payments are inserted unordered, so a failed document does not stop the others.
+     * Only the balances of the payments that were not written are restored.
+     */
+    private Mono<Void> savePayments(List<PaymentItem> items) {
+        List<PaymentItem> applied = items.stream()
+                .filter(item -> item.status == BulkPaymentStatus.APPLIED)
+                .collect(Collectors.toList());
+        if (applied.isEmpty()) {
+            return Mono.empty();
+        }
+        applied.forEach(item -> item.payment = PaymentConverter.toPayment(item.request));
+        List<Payment> payments = applied.stream().map(item -> item.payment).collect(Collectors.toList());
+        return paymentRepository.insertAllUnordered(payments)
+                .map(Map::keySet)
+                .onErrorResume(e -> {
+                    log.error("Error storing bulk payments, checking which ones were written", e);
+                    return findNotWritten(payments);
+                })
+                .flatMap(failed -> {
+                    if (failed.isEmpty()) {
+                        return Mono.empty();
+                    }
+                    log.error("{} of {} bulk payments were not stored, restoring their balances",
+                            failed.size(), payments.size());
+                    return restoreBalances(failed.stream().map(applied::get).collect(Collectors.toList()));
+                });
+    }
+
+    /**
+     * Positions of the payments missing from the collection after an insert that failed as a whole.
+     * If they cannot be read either, every payment is treated as not written.
+     */
+    private Mono<Set<Integer>> findNotWritten(List<Payment> payments) {
+        Set<Integer> all = IntStream.range(0, payments.size()).boxed().collect(Collectors.toSet());
+        return paymentRepository.findAllById(payments.stream().map(Payment::getId).collect(Collectors.toList()))
+                .map(Payment::getId)
+                .collect(Collectors.toSet())
+                .map(written -> all.stream()
+                        .filter(index -> !written.contains(payments.get(index).getId()))
+                        .collect(Collectors.toSet()))
+                .onErrorResume(e -> {
+                    log.error("Error reading stored bulk payments", e);
+                    return Mono.just(all);
+                });
+    }
+
+    private Mono<Void> restoreBalances(List<PaymentItem> failed) {
+        failed.forEach(item -> {
+            item.status = BulkPaymentStatus.FAILED;
+            item.payment = null;
+        });
+        Map<String, Double> amounts = failed.stream()
+                .collect(Collectors.groupingBy(item -> item.request.getCreditId(),
+                        Collectors.summingDouble(item -> item.request.getAmount())));
+        return Flux.fromIterable(amounts.entrySet())
+                .flatMap(amount -> creditRespository.restoreBalance(amount.getKey(), amount.getValue()))
+                .then();
+    }
+
+    private static final class PaymentItem {
+        private final long index;
+        private final BulkPaymentRequest request;
+        private BulkPaymentStatus status;
+        private Payment payment;
+
+        private PaymentItem(long index, BulkPaymentRequest request) {
+            this.index = index;
+            this.request = request;
+            if (request.getCreditId() == null || request.getCreditId().isEmpty() || request.getAmount() < 0) {
+                this.status = BulkPaymentStatus.INVALID;
+            }
+        }
+
+        private BulkPaymentResponse toResponse() {
+            return new BulkPaymentResponse(index, request.getCreditId(), status, payment != null ? payment.getId() : null);
+        }
+    }
+}
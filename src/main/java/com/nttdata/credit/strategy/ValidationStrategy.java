@@ -3,14 +3,26 @@ package com.nttdata.credit.strategy;
 
 import com.nttdata.credit.model.entity.Credit;
 import com.nttdata.credit.model.enums.TypeClient;
-import com.nttdata.credit.model.exception.CreditNotFoundException;
+import com.nttdata.credit.model.exception.CreditConflictException;
 import com.nttdata.credit.model.response.CreditResponse;
 import com.nttdata.credit.repository.CreditRespository;
+import com.nttdata.credit.tracing.RequestTiming;
 import com.nttdata.credit.util.CreditConverter;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.nttdata.credit.util.constats.ConstantsMessage.CLIENT_NOT_FOUND;
+import static com.nttdata.credit.util.constats.ConstantsMessage.PERSONAL_CLIENT_ONE_CREDIT;
+import static com.nttdata.credit.util.constats.ConstantsMessage.UNKNOWN_CLIENT_TYPE;
 
 @Component
 public class ValidationStrategy {
@@ -26,23 +38,75 @@ public class ValidationStrategy {
             TypeClient.BUSINESS.name(), this::validateBusinessClient
     );
 
+    /**
+     * Applies the client rules to a batch of credits, looking up the existing credits
+     * of every personal client in the batch with a single query.
+     *
+     * @param credits     the credits to validate.
+     * @param clientTypes the type of each client of the batch that could be resolved, by client ID.
+     * @return the rejection reason of each invalid credit, by position in the batch.
+     */
+    public Mono<Map<Integer, String>> validateBatch(List<Credit> credits, Map<String, String> clientTypes) {
+        Set<String> personalClientIds = clientTypes.entrySet().stream()
+                .filter(entry -> TypeClient.PERSONAL.name().equals(entry.getValue()))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+        Mono<Set<String>> clientsWithCredit = personalClientIds.isEmpty()
+                ? Mono.just(new HashSet<>())
+                : creditRespository.findClientIdsByClientIdIn(personalClientIds)
+                        .map(Credit::getClientId)
+                        .collect(Collectors.toCollection(HashSet::new));
+        return clientsWithCredit.map(taken -> {
+            Map<Integer, String> rejections = new HashMap<>();
+            for (int i = 0; i < credits.size(); i++) {
+                String clientId = credits.get(i).getClientId();
+                String reason = batchRejection(clientTypes.get(clientId), clientId, taken);
+                if (reason != null) {
+                    rejections.put(i, reason);
+                } else {
+                    credits.get(i).setClientType(TypeClient.LOOKUP.find(clientTypes.get(clientId)));
+                }
+            }
+            return rejections;
+        });
+    }
+
+    private String batchRejection(String clientType, String clientId, Set<String> clientsWithCredit) {
+        if (clientType == null) {
+            return CLIENT_NOT_FOUND + clientId;
+        }
+        if (!validationStrategies.containsKey(clientType)) {
+            return UNKNOWN_CLIENT_TYPE;
+        }
+        if (TypeClient.PERSONAL.name().equals(clientType) && !clientsWithCredit.add(clientId)) {
+            return PERSONAL_CLIENT_ONE_CREDIT;
+        }
+        return null;
+    }
+
+    /**
+     * Checks for an existing credit of the client without loading it. Two concurrent
+     * creates can both pass the check, so the unique personal index has the last word.
+     */
     private Mono<CreditResponse> validatePersonalClient(Credit credit) {
-        return creditRespository.findByClientId(credit.getClientId())
-                .collectList()
-                .flatMap(existingCredits -> {
-                    if (existingCredits.size() >= 1) {
-                        return Mono.error(new CreditNotFoundException("Personal client can only have one credit"));
+        credit.setClientType(TypeClient.PERSONAL);
+        return RequestTiming.stage("validate", creditRespository.existsByClientId(credit.getClientId()))
+                .flatMap(exists -> {
+                    if (Boolean.TRUE.equals(exists)) {
+                        return Mono.error(new CreditConflictException(PERSONAL_CLIENT_ONE_CREDIT));
                     }
                     return saveCredit(credit);
-                });
+                })
+                .onErrorMap(DuplicateKeyException.class, e -> new CreditConflictException(PERSONAL_CLIENT_ONE_CREDIT));
     }
 
     private Mono<CreditResponse> validateBusinessClient(Credit credit) {
+        credit.setClientType(TypeClient.BUSINESS);
         return saveCredit(credit);
     }
 
     private Mono<CreditResponse> saveCredit(Credit credit) {
-        return creditRespository.save(credit)
+        return RequestTiming.stage("save", creditRespository.save(credit))
                 .map(CreditConverter::toCreditResponse);
     }
 }
@@ -0,0 +1,86 @@
+package com.nttdata.credit.tracing;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Appends the spans as JSON lines to a local file. Spans are queued and written by a
+ * single background thread; when the queue is full new spans are dropped.
+ */
+@Slf4j
+public class FileSpanExporter implements SpanExporter, AutoCloseable {
+    private static final int MAX_BATCH = 512;
+
+    private final BlockingQueue<Span> queue;
+    private final BufferedWriter writer;
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    public FileSpanExporter(Path file, int queueSize) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+        this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        this.worker = new Thread(this::drain, "span-exporter");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    @Override
+    public void export(List<Span> spans) {
+        for (Span span : spans) {
+            if (!queue.offer(span)) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        worker.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    private void drain() {
+        List<Span> batch = new ArrayList<>(MAX_BATCH);
+        try (BufferedWriter out = writer) {
+            while (running || !queue.isEmpty()) {
+                Span first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, MAX_BATCH - 1);
+                write(out, batch);
+                batch.clear();
+            }
+        } catch (IOException e) {
+            log.warn("Span exporter stopped", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void write(BufferedWriter out, List<Span> batch) throws IOException {
+        for (Span span : batch) {
+            out.write("{\"traceId\":\"" + span.getTraceId() + "\",\"name\":\"" + span.getName()
+                    + "\",\"startEpochMicros\":" + span.getStartEpochMicros()
+                    + ",\"durationNanos\":" + span.getDurationNanos() + "}");
+            out.newLine();
+        }
+        out.flush();
+    }
+}
@@ -0,0 +1,140 @@
+package com.nttdata.credit.tracing;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Stages measured while serving one request. It travels in the Reactor context, and the
+ * {@code stage} methods time a publisher only when the subscriber context holds one, so
+ * they cost nothing outside a request.
+ */
+public class RequestTiming {
+    private static final int MAX_STAGES = 64;
+
+    private final String traceId;
+    private final long startNanos;
+    private final long startEpochMicros;
+    private final List<Stage> stages = new ArrayList<>();
+    private long lastEndNanos;
+
+    public RequestTiming(String traceId) {
+        this.traceId = traceId;
+        this.startNanos = System.nanoTime();
+        this.startEpochMicros = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+    }
+
+    public Context toContext() {
+        return Context.of(RequestTiming.class, this);
+    }
+
+    /**
+     * Times a publisher from subscription to its first value or terminal signal.
+     */
+    public static <T> Mono<T> stage(String name, Mono<T> mono) {
+        return Mono.deferContextual(context -> {
+            RequestTiming timing = context.getOrDefault(RequestTiming.class, null);
+            if (timing == null) {
+                return mono;
+            }
+            StageRecorder recorder = timing.new StageRecorder(name);
+            return mono.doOnEach(signal -> recorder.end())
+                    .doOnCancel(recorder::end);
+        });
+    }
+
+    /**
+     * Times a publisher from subscription to its terminal signal.
+     */
+    public static <T> Flux<T> stage(String name, Flux<T> flux) {
+        return Flux.deferContextual(context -> {
+            RequestTiming timing = context.getOrDefault(RequestTiming.class, null);
+            if (timing == null) {
+                return flux;
+            }
+            StageRecorder recorder = timing.new StageRecorder(name);
+            return flux.doFinally(signal -> recorder.end());
+        });
+    }
+
+    /**
+     * Records a stage that started when the last recorded stage ended, such as the encoding
+     * of the response body once the service returned it.
+     */
+    public synchronized void recordSinceLastStage(String name) {
+        if (lastEndNanos != 0) {
+            record(name, lastEndNanos, System.nanoTime());
+        }
+    }
+
+    /**
+     * Formats the stages and the elapsed time as a {@code Server-Timing} header value.
+     */
+    public synchronized String toServerTiming() {
+        StringBuilder header = new StringBuilder();
+        for (Stage stage : stages) {
+            appendMetric(header, stage.name, stage.durationNanos);
+        }
+        appendMetric(header, "total", System.nanoTime() - startNanos);
+        return header.toString();
+    }
+
+    public synchronized List<Span> toSpans() {
+        List<Span> spans = new ArrayList<>(stages.size());
+        for (Stage stage : stages) {
+            spans.add(new Span(traceId, stage.name,
+                    startEpochMicros + TimeUnit.NANOSECONDS.toMicros(stage.startNanos - startNanos),
+                    stage.durationNanos));
+        }
+        return spans;
+    }
+
+    private synchronized void record(String name, long start, long end) {
+        lastEndNanos = Math.max(lastEndNanos, end);
+        if (stages.size() < MAX_STAGES) {
+            stages.add(new Stage(name, start, end - start));
+        }
+    }
+
+    private static void appendMetric(StringBuilder header, String name, long durationNanos) {
+        if (header.length() > 0) {
+            header.append(", ");
+        }
+        header.append(name).append(";dur=")
+                .append(String.format(Locale.ROOT, "%.1f", durationNanos / 1_000_000.0));
+    }
+
+    private static final class Stage {
+        private final String name;
+        private final long startNanos;
+        private final long durationNanos;
+
+        private Stage(String name, long startNanos, long durationNanos) {
+            this.name = name;
+            this.startNanos = startNanos;
+            this.durationNanos = durationNanos;
+        }
+    }
+
+    private final class StageRecorder {
+        private final String name;
+        private final long start = System.nanoTime();
+        private final AtomicBoolean ended = new AtomicBoolean();
+
+        private StageRecorder(String name) {
+            this.name = name;
+        }
+
+        private void end() {
+            if (ended.compareAndSet(false, true)) {
+                record(name, start, System.nanoTime());
+            }
+        }
+    }
+}
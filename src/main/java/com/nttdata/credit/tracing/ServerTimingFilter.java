@@ -0,0 +1,71 @@
+package com.nttdata.credit.tracing;
+
+import com.nttdata.credit.logging.RequestIdFilter;
+import org.reactivestreams.Publisher;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Measures the stages of each request and reports them in the {@code Server-Timing}
+ * response header and, once the request finishes, to the {@link SpanExporter}.
+ * The time between the last stage and the first byte of the body is reported as {@code encode}.
+ */
+public class ServerTimingFilter implements WebFilter, Ordered {
+    public static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    private final SpanExporter spanExporter;
+
+    public ServerTimingFilter(SpanExporter spanExporter) {
+        this.spanExporter = spanExporter;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 1;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        RequestTiming timing = new RequestTiming(exchange.getResponse().getHeaders()
+                .getFirst(RequestIdFilter.REQUEST_ID_HEADER));
+        ServerHttpResponse response = new TimedResponse(exchange.getResponse(), timing);
+        response.beforeCommit(() -> Mono.fromRunnable(() ->
+                response.getHeaders().add(SERVER_TIMING_HEADER, timing.toServerTiming())));
+        return chain.filter(exchange.mutate().response(response).build())
+                .contextWrite(timing.toContext())
+                .doFinally(signal -> spanExporter.export(timing.toSpans()));
+    }
+
+    private static final class TimedResponse extends ServerHttpResponseDecorator {
+        private final RequestTiming timing;
+        private final AtomicBoolean firstBuffer = new AtomicBoolean(true);
+
+        private TimedResponse(ServerHttpResponse delegate, RequestTiming timing) {
+            super(delegate);
+            this.timing = timing;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            if (body instanceof Mono) {
+                return super.writeWith(((Mono<? extends DataBuffer>) body).doOnNext(this::onBuffer));
+            }
+            return super.writeWith(Flux.from(body).doOnNext(this::onBuffer));
+        }
+
+        private void onBuffer(DataBuffer buffer) {
+            if (firstBuffer.compareAndSet(true, false)) {
+                timing.recordSinceLastStage("encode");
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.nttdata.credit.tracing;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * One timed stage of a request.
+ */
+@AllArgsConstructor
+@Getter
+public class Span {
+    private final String traceId;
+    private final String name;
+    private final long startEpochMicros;
+    private final long durationNanos;
+}
@@ -0,0 +1,11 @@
+package com.nttdata.credit.tracing;
+
+import java.util.List;
+
+/**
+ * Receives the stages of every finished request. Called on the thread that completed the
+ * request, so implementations must hand the spans off instead of doing I/O inline.
+ */
+public interface SpanExporter {
+    void export(List<Span> spans);
+}
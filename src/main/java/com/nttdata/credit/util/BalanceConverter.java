@@ -13,10 +13,12 @@ import java.util.stream.Collectors;
 public class BalanceConverter {
     public static BalanceResponse toBalanceResponse(List<Credit> creditList) {
         BalanceResponse balanceResponse = new BalanceResponse();
+        Date date = new Date();
         List<Balance> listBalances = creditList.stream()
-                .map(creditCard -> new Balance(creditCard.getId(), creditCard.getOutstandingBalance(), new Date()))
+                .map(creditCard -> new Balance(creditCard.getId(), creditCard.getOutstandingBalance(), date))
                 .collect(Collectors.toList());
         balanceResponse.setBalances(listBalances);
+        balanceResponse.setTotalBalance(creditList.stream().mapToDouble(Credit::getOutstandingBalance).sum());
         if (!creditList.isEmpty()) {
             balanceResponse.setClientId(creditList.get(0).getClientId());
         }
@@ -1,8 +1,10 @@
 package com.nttdata.credit.util;
 
 import com.nttdata.credit.model.entity.Credit;
+import com.nttdata.credit.model.request.CreditPatchRequest;
 import com.nttdata.credit.model.request.CreditRequest;
 import com.nttdata.credit.model.response.CreditResponse;
+import org.springframework.data.mongodb.core.query.Update;
 
 import java.util.UUID;
 
@@ -17,7 +19,6 @@ public class CreditConverter {
         credit.setEndDate(request.getEndDate());
         credit.setOutstandingBalance(request.getOutstandingBalance());
         credit.setClientId(request.getClientId());
-        credit.setPayments(request.getPayments());
 
         return credit;
     }
@@ -32,7 +33,41 @@ public class CreditConverter {
         response.setEndDate(credit.getEndDate());
         response.setOutstandingBalance(credit.getOutstandingBalance());
         response.setClientId(credit.getClientId());
-        response.setPayments(credit.getPayments());
+        response.setVersion(credit.getVersion());
         return response;
     }
+
+    /**
+     * Sets every field a full update replaces, leaving the client type, the version and any other stored field alone.
+     */
+    public static Update toUpdate(CreditRequest request) {
+        return new Update()
+                .set("type", request.getType())
+                .set("amount", request.getAmount())
+                .set("interestRate", request.getInterestRate())
+                .set("startDate", request.getStartDate())
+                .set("endDate", request.getEndDate())
+                .set("outstandingBalance", request.getOutstandingBalance())
+                .set("clientId", request.getClientId());
+    }
+
+    /**
+     * Sets only the fields present in the patch.
+     */
+    public static Update toUpdate(CreditPatchRequest patch) {
+        Update update = new Update();
+        setIfPresent(update, "type", patch.getType());
+        setIfPresent(update, "amount", patch.getAmount());
+        setIfPresent(update, "interestRate", patch.getInterestRate());
+        setIfPresent(update, "startDate", patch.getStartDate());
+        setIfPresent(update, "endDate", patch.getEndDate());
+        setIfPresent(update, "outstandingBalance", patch.getOutstandingBalance());
+        return update;
+    }
+
+    private static void setIfPresent(Update update, String field, Object value) {
+        if (value != null) {
+            update.set(field, value);
+        }
+    }
 }
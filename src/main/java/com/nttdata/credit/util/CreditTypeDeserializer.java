@@ -1,16 +1,25 @@
 package com.nttdata.credit.util;
 
 import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
 import com.nttdata.credit.model.enums.TypeCredit;
 
 import java.io.IOException;
 
+/**
+ * Reads the credit type ignoring case, straight from the parser buffer.
+ */
 public class CreditTypeDeserializer extends JsonDeserializer<TypeCredit> {
     @Override
     public TypeCredit deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
-        String value = p.getText().toUpperCase();
-        return TypeCredit.valueOf(value);
+        TypeCredit type = p.hasToken(JsonToken.VALUE_STRING)
+                ? TypeCredit.LOOKUP.find(p.getTextCharacters(), p.getTextOffset(), p.getTextLength())
+                : null;
+        if (type == null) {
+            return (TypeCredit) ctxt.handleWeirdStringValue(TypeCredit.class, p.getText(), "not a credit type");
+        }
+        return type;
     }
-}
\ No newline at end of file
+}
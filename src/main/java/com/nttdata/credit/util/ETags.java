@@ -0,0 +1,93 @@
+package com.nttdata.credit.util;
+
+import com.nttdata.credit.model.entity.Credit;
+import com.nttdata.credit.model.entity.Payment;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Converts the version of a credit to a weak ETag, and the {@code If-Match} header back to a version.
+ * Matches {@code If-None-Match} against the current ETag of a resource.
+ * The tags are weak because one version is sent as JSON, CBOR or Smile, compressed or not,
+ * and these representations are not byte-for-byte equal.
+ */
+public class ETags {
+    /**
+     * Version that no credit has, so an {@code If-Match} that cannot be parsed never matches.
+     */
+    private static final long NO_VERSION = -1L;
+    private static final String WEAK_PREFIX = "W/";
+
+    public static String of(Long version) {
+        return WEAK_PREFIX + "\"" + (version != null ? version : 0L) + "\"";
+    }
+
+    /**
+     * ETag of a set of credits, from their IDs and versions. The credits must come in a stable
+     * order, so it changes when a credit is added, removed or modified.
+     */
+    public static String ofAll(List<Credit> credits) {
+        StringBuilder versions = new StringBuilder();
+        for (Credit credit : credits) {
+            versions.append(credit.getId()).append(':')
+                    .append(credit.getVersion() != null ? credit.getVersion() : 0L).append('\n');
+        }
+        return WEAK_PREFIX + "\"" + DigestUtils.md5DigestAsHex(versions.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * ETag of the payments of a credit, from their count and the latest one. Payments are only
+     * ever added, so it changes exactly when a payment is recorded.
+     */
+    public static String ofPayments(long count, Payment latest) {
+        String payments = count + ":" + latest.getId() + ":"
+                + (latest.getDate() != null ? latest.getDate().getTime() : 0L);
+        return WEAK_PREFIX + "\"" + DigestUtils.md5DigestAsHex(payments.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * Weak comparison, as {@code If-None-Match} requires: a {@code W/} prefix is ignored on both tags.
+     *
+     * @return true when the header lists the ETag or is {@code *}.
+     */
+    public static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaqueTag = opaque(eTag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || opaque(tag).equals(opaqueTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The tag names the credit version rather than the bytes of one representation,
+     * so a weak tag is accepted too.
+     *
+     * @return the expected version, or null when the header is absent or {@code *}.
+     */
+    public static Long toVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = opaque(ifMatch.trim());
+        if (tag.length() < 2 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            return NO_VERSION;
+        }
+        try {
+            return Long.parseLong(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            return NO_VERSION;
+        }
+    }
+
+    private static String opaque(String tag) {
+        return tag.startsWith(WEAK_PREFIX) ? tag.substring(WEAK_PREFIX.length()) : tag;
+    }
+}
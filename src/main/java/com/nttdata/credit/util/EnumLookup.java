@@ -0,0 +1,75 @@
+package com.nttdata.credit.util;
+
+import java.util.Locale;
+
+/**
+ * Case-insensitive lookup of enum constants by name, precomputed once per enum.
+ * Unlike {@code valueOf(text.toUpperCase())} it neither allocates nor throws.
+ */
+public final class EnumLookup<E extends Enum<E>> {
+    private final E[] constants;
+    private final char[][] names;
+
+    private EnumLookup(Class<E> type) {
+        this.constants = type.getEnumConstants();
+        this.names = new char[constants.length][];
+        for (int i = 0; i < constants.length; i++) {
+            names[i] = constants[i].name().toUpperCase(Locale.ROOT).toCharArray();
+        }
+    }
+
+    public static <E extends Enum<E>> EnumLookup<E> of(Class<E> type) {
+        return new EnumLookup<>(type);
+    }
+
+    /**
+     * @return the constant named as the text ignoring case, or null when there is none.
+     */
+    public E find(CharSequence text) {
+        if (text == null) {
+            return null;
+        }
+        for (int i = 0; i < names.length; i++) {
+            if (matches(names[i], text)) {
+                return constants[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Same as {@link #find(CharSequence)} on a range of a buffer, such as the text of a JSON parser.
+     */
+    public E find(char[] text, int offset, int length) {
+        for (int i = 0; i < names.length; i++) {
+            if (matches(names[i], text, offset, length)) {
+                return constants[i];
+            }
+        }
+        return null;
+    }
+
+    private static boolean matches(char[] name, CharSequence text) {
+        if (name.length != text.length()) {
+            return false;
+        }
+        for (int i = 0; i < name.length; i++) {
+            if (Character.toUpperCase(text.charAt(i)) != name[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean matches(char[] name, char[] text, int offset, int length) {
+        if (name.length != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (Character.toUpperCase(text[offset + i]) != name[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
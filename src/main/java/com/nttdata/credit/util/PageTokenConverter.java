@@ -0,0 +1,26 @@
+package com.nttdata.credit.util;
+
+import com.nttdata.credit.model.exception.InvalidCreditDataException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Converts the last ID of a page to the opaque continuation token handed to clients, and back.
+ */
+public class PageTokenConverter {
+    public static String toToken(String lastId) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(lastId.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String toLastId(String token) {
+        if (token == null || token.isEmpty()) {
+            return "";
+        }
+        try {
+            return new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCreditDataException("Invalid page token");
+        }
+    }
+}
@@ -1,15 +1,31 @@
 package com.nttdata.credit.util;
 
 import com.nttdata.credit.model.entity.Payment;
+import com.nttdata.credit.model.request.BulkPaymentRequest;
+import com.nttdata.credit.model.request.PaymentRequest;
 import com.nttdata.credit.model.response.PaymentResponse;
 import reactor.core.publisher.Flux;
 
 import java.util.Date;
 import java.util.List;
+import java.util.UUID;
 
 public class PaymentConverter {
+    public static Payment toPayment(String creditId, PaymentRequest request) {
+        return new Payment(UUID.randomUUID().toString(), creditId, request.getAmount(), new Date(), "new Pay");
+    }
+
+    public static Payment toPayment(BulkPaymentRequest request) {
+        return new Payment(UUID.randomUUID().toString(), request.getCreditId(), request.getAmount(), new Date(), "bulk Pay");
+    }
+
+    public static Payment toPayment(String creditId, Payment payment) {
+        Date date = payment.getDate() != null ? payment.getDate() : new Date();
+        return new Payment(UUID.randomUUID().toString(), creditId, payment.getAmount(), date, payment.getDescription());
+    }
+
     public static PaymentResponse toPaymentResponse(Payment payment) {
-        PaymentResponse paymentResponse = new PaymentResponse(payment.getAmount(), new Date());
+        PaymentResponse paymentResponse = new PaymentResponse(payment.getAmount(), payment.getDate(), payment.getId());
         return paymentResponse;
     }
     public static Flux<PaymentResponse> toListPaymentResponse(List<PaymentResponse>paymentResponseList) {
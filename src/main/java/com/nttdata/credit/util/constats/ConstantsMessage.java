@@ -2,6 +2,13 @@ package com.nttdata.credit.util.constats;
 
 public class ConstantsMessage {
     public static final String CREDIT_NOT_FOUND = "Credit not found with id:";
+    public static final String PERSONAL_CLIENT_ONE_CREDIT = "Personal client can only have one credit";
+    public static final String UNKNOWN_CLIENT_TYPE = "Unknown client type";
+    public static final String CLIENT_NOT_FOUND = "Client not found with id: ";
+    public static final String CLIENT_SERVICE_UNAVAILABLE = "Client service unavailable";
+    public static final String CLIENT_UNAUTHORIZED = "Client service rejected the credentials for client with id: ";
+    public static final String CLIENT_FORBIDDEN = "Access denied to client with id: ";
+    public static final String CREDIT_VERSION_MISMATCH = "Credit was modified, current version differs for id: ";
 
 
 
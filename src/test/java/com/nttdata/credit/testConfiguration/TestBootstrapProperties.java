@@ -0,0 +1,54 @@
+package com.nttdata.credit.testConfiguration;
+
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.autoconfigure.BulkheadProperties;
+import io.github.resilience4j.common.CompositeCustomizer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySources;
+import org.springframework.boot.env.PropertiesPropertySourceLoader;
+import org.springframework.boot.web.server.Compression;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TestBootstrapProperties {
+    private Binder binder;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        List<PropertySource<?>> sources = new PropertiesPropertySourceLoader()
+                .load("bootstrap", new ClassPathResource("bootstrap.properties"));
+        binder = new Binder(ConfigurationPropertySources.from(sources));
+    }
+
+    @Test
+    void bindsServerCompression() {
+        Compression compression = binder.bind("server.compression", Compression.class).get();
+
+        assertTrue(compression.getEnabled());
+        assertEquals(DataSize.ofKilobytes(2), compression.getMinResponseSize());
+        assertArrayEquals(new String[]{"application/json", "application/cbor", "application/x-jackson-smile"},
+                compression.getMimeTypes());
+    }
+
+    @Test
+    void bindsClientBulkhead() {
+        BulkheadProperties properties = binder.bind("resilience4j.bulkhead", BulkheadProperties.class).get();
+        BulkheadConfig config = properties.createBulkheadConfig(properties.getInstances().get("client"),
+                new CompositeCustomizer<>(Collections.emptyList()), "client");
+
+        assertEquals(64, config.getMaxConcurrentCalls());
+        assertEquals(Duration.ZERO, config.getMaxWaitDuration());
+    }
+}
@@ -0,0 +1,84 @@
+package com.nttdata.credit.testConfiguration;
+
+import com.nttdata.credit.configuration.ClientHttpProperties;
+import com.nttdata.credit.configuration.WebClientConfig;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaders;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TestWebClientConfig {
+
+    @Test
+    void bindsClientHttpProperties() {
+        Binder binder = new Binder(new MapConfigurationPropertySource(Map.of(
+                "credit.client.http.protocols", "H2C,HTTP11",
+                "credit.client.http.compression", "false",
+                "credit.client.http.connect-timeout", "500ms",
+                "credit.client.http.response-timeout", "3s",
+                "credit.client.http.pool.max-connections", "16",
+                "credit.client.http.pool.pending-acquire-max-count", "32",
+                "credit.client.http.pool.max-idle-time", "10s",
+                "credit.client.http.pool.metrics", "false")));
+
+        ClientHttpProperties properties = binder.bind("credit.client.http", ClientHttpProperties.class).get();
+
+        assertEquals(List.of(HttpProtocol.H2C, HttpProtocol.HTTP11), properties.getProtocols());
+        assertFalse(properties.isCompression());
+        assertEquals(Duration.ofMillis(500), properties.getConnectTimeout());
+        assertEquals(Duration.ofSeconds(3), properties.getResponseTimeout());
+        assertTrue(properties.isKeepAlive());
+        assertEquals(16, properties.getPool().getMaxConnections());
+        assertEquals(32, properties.getPool().getPendingAcquireMaxCount());
+        assertEquals(Duration.ofSeconds(10), properties.getPool().getMaxIdleTime());
+        assertEquals(Duration.ofMinutes(5), properties.getPool().getMaxLifeTime());
+        assertFalse(properties.getPool().isMetrics());
+    }
+
+    @Test
+    void getSendsAcceptWithoutContentType() {
+        AtomicReference<HttpHeaders> received = new AtomicReference<>();
+        DisposableServer server = HttpServer.create()
+                .host("localhost")
+                .port(0)
+                .route(routes -> routes.get("/api/v1/client/{id}", (request, response) -> {
+                    received.set(request.requestHeaders().copy());
+                    return response.header(HttpHeaderNames.CONTENT_TYPE, "application/json").sendString(Mono.just("{}"));
+                }))
+                .bindNow();
+        ClientHttpProperties properties = new ClientHttpProperties();
+        properties.getPool().setMetrics(false);
+        WebClientConfig config = new WebClientConfig();
+        ReflectionTestUtils.setField(config, "clientUrl", "http://localhost:" + server.port());
+        ConnectionProvider connectionProvider = config.clientConnectionProvider(properties);
+        try {
+            WebClient webClient = config.webClient(WebClient.builder(), properties, connectionProvider);
+
+            webClient.get().uri("/api/v1/client/{id}", "1").retrieve().toBodilessEntity().block(Duration.ofSeconds(5));
+
+            assertEquals("application/json", received.get().get(HttpHeaderNames.ACCEPT));
+            assertFalse(received.get().contains(HttpHeaderNames.CONTENT_TYPE));
+            assertEquals("gzip", received.get().get(HttpHeaderNames.ACCEPT_ENCODING));
+        } finally {
+            connectionProvider.disposeLater().block();
+            server.disposeNow();
+        }
+    }
+}
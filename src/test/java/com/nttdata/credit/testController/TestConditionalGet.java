@@ -0,0 +1,143 @@
+package com.nttdata.credit.testController;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nttdata.credit.configuration.JacksonConfig;
+import com.nttdata.credit.controller.CreditController;
+import com.nttdata.credit.model.response.BalanceResponse;
+import com.nttdata.credit.model.response.CreditResponse;
+import com.nttdata.credit.model.response.PaymentResponse;
+import com.nttdata.credit.service.CreditService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TestConditionalGet {
+    @Mock
+    private CreditService creditService;
+    private WebTestClient client;
+
+    @BeforeEach
+    void setUp() {
+        client = WebTestClient.bindToController(new CreditController(creditService)).build();
+    }
+
+    @Test
+    void creditIsSentWithETag() {
+        CreditResponse credit = new CreditResponse();
+        credit.setVersion(3L);
+        when(creditService.getCreditById("1")).thenReturn(Mono.just(credit));
+
+        client.get().uri("/api/v1/credit/1").exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "W/\"3\"");
+
+        verify(creditService, never()).getCreditETag("1");
+    }
+
+    @Test
+    void unchangedCreditIsNotModifiedWithoutLoadingIt() {
+        when(creditService.getCreditETag("1")).thenReturn(Mono.just("W/\"3\""));
+
+        client.get().uri("/api/v1/credit/1").header(HttpHeaders.IF_NONE_MATCH, "\"2\", W/\"3\"").exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "W/\"3\"")
+                .expectHeader().valueEquals(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                .expectBody().isEmpty();
+
+        verify(creditService, never()).getCreditById("1");
+    }
+
+    @Test
+    void changedCreditIsSent() {
+        CreditResponse credit = new CreditResponse();
+        credit.setVersion(4L);
+        when(creditService.getCreditETag("1")).thenReturn(Mono.just("W/\"4\""));
+        when(creditService.getCreditById("1")).thenReturn(Mono.just(credit));
+
+        client.get().uri("/api/v1/credit/1").header(HttpHeaders.IF_NONE_MATCH, "\"3\"").exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "W/\"4\"");
+    }
+
+    @Test
+    void representationsShareWeakETagAndVaryByAccept() {
+        CodecCustomizer codecs = new JacksonConfig()
+                .creditCodecCustomizer(new ObjectMapper(), new Jackson2ObjectMapperBuilder(), 4096);
+        WebTestClient binaryClient = WebTestClient.bindToController(new CreditController(creditService))
+                .httpMessageCodecs(codecs::customize)
+                .build();
+        CreditResponse credit = new CreditResponse();
+        credit.setVersion(3L);
+        when(creditService.getCreditById("1")).thenReturn(Mono.just(credit));
+
+        for (MediaType mediaType : List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR)) {
+            binaryClient.get().uri("/api/v1/credit/1").accept(mediaType).exchange()
+                    .expectStatus().isOk()
+                    .expectHeader().contentType(mediaType)
+                    .expectHeader().valueEquals(HttpHeaders.ETAG, "W/\"3\"")
+                    .expectHeader().valueEquals(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
+    }
+
+    @Test
+    void unchangedBalancesAreNotModified() {
+        when(creditService.getBalanceETag("client")).thenReturn(Mono.just("W/\"abc\""));
+
+        client.get().uri("/api/v1/credit/client/balances").header(HttpHeaders.IF_NONE_MATCH, "\"abc\"").exchange()
+                .expectStatus().isNotModified();
+
+        verify(creditService, never()).getBalanceByClientId("client");
+    }
+
+    @Test
+    void balancesAreSentWithETag() {
+        when(creditService.getBalanceETag("client")).thenReturn(Mono.just("W/\"abc\""));
+        when(creditService.getBalanceByClientId("client")).thenReturn(Mono.just(new BalanceResponse()));
+
+        client.get().uri("/api/v1/credit/client/balances").exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "W/\"abc\"");
+    }
+
+    @Test
+    void paymentsOfUnknownCreditAreSentWithoutETag() {
+        when(creditService.getPaymentsETag("1")).thenReturn(Mono.empty());
+        when(creditService.getAllPaysByCredirId(eq("1"), isNull(), isNull(), anyInt()))
+                .thenReturn(Flux.empty());
+
+        client.get().uri("/api/v1/credit/1/payments").header(HttpHeaders.IF_NONE_MATCH, "*").exchange()
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist(HttpHeaders.ETAG)
+                .expectBodyList(PaymentResponse.class).hasSize(0);
+    }
+
+    @Test
+    void unchangedPaymentsAreNotModified() {
+        when(creditService.getPaymentsETag("1")).thenReturn(Mono.just("W/\"5\""));
+
+        client.get().uri("/api/v1/credit/1/payments").header(HttpHeaders.IF_NONE_MATCH, "\"5\"").exchange()
+                .expectStatus().isNotModified();
+
+        verify(creditService, never()).getAllPaysByCredirId(any(), any(), any(), anyInt());
+    }
+}
@@ -0,0 +1,89 @@
+package com.nttdata.credit.testJson;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.nttdata.credit.configuration.JacksonConfig;
+import com.nttdata.credit.controller.CreditController;
+import com.nttdata.credit.model.response.BalanceResponse;
+import com.nttdata.credit.model.response.PaymentResponse;
+import com.nttdata.credit.service.CreditService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TestBinaryCodecs {
+    @Mock
+    private CreditService creditService;
+    private WebTestClient client;
+
+    @BeforeEach
+    void setUp() {
+        CodecCustomizer codecs = new JacksonConfig()
+                .creditCodecCustomizer(new ObjectMapper(), new Jackson2ObjectMapperBuilder(), 4096);
+        client = WebTestClient.bindToController(new CreditController(creditService))
+                .httpMessageCodecs(codecs::customize)
+                .build();
+    }
+
+    private void givenPayments() {
+        when(creditService.getPaymentsETag("1")).thenReturn(Mono.empty());
+        when(creditService.getAllPaysByCredirId(eq("1"), isNull(), isNull(), anyInt()))
+                .thenReturn(Flux.just(new PaymentResponse(100, new Date(1000L), "p1"),
+                        new PaymentResponse(50, new Date(2000L), "p2")));
+    }
+
+    @Test
+    void paymentsAreSentAsCborArray() throws Exception {
+        givenPayments();
+        byte[] body = client.get().uri("/api/v1/credit/1/payments").accept(MediaType.APPLICATION_CBOR).exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_CBOR)
+                .expectBody().returnResult().getResponseBody();
+
+        JsonNode payments = new ObjectMapper(new CBORFactory()).readTree(body);
+        assertEquals(2, payments.size());
+        assertTrue(payments.get(1).get("date").isNumber());
+        assertEquals(2000L, payments.get(1).get("date").asLong());
+    }
+
+    @Test
+    void balancesAreSentAsSmile() throws Exception {
+        when(creditService.getBalanceETag("client")).thenReturn(Mono.empty());
+        when(creditService.getBalanceByClientId("client")).thenReturn(Mono.just(new BalanceResponse()));
+
+        byte[] body = client.get().uri("/api/v1/credit/client/balances").accept(JacksonConfig.SMILE).exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(JacksonConfig.SMILE)
+                .expectBody().returnResult().getResponseBody();
+
+        assertTrue(new ObjectMapper(new SmileFactory()).readTree(body).isObject());
+    }
+
+    @Test
+    void jsonStaysTheDefault() {
+        givenPayments();
+        client.get().uri("/api/v1/credit/1/payments").accept(MediaType.ALL).exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON);
+    }
+}
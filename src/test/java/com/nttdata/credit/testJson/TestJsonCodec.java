@@ -0,0 +1,88 @@
+package com.nttdata.credit.testJson;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.nttdata.credit.codec.PooledJackson2JsonEncoder;
+import com.nttdata.credit.model.entity.Payment;
+import com.nttdata.credit.model.enums.TypeClient;
+import com.nttdata.credit.model.enums.TypeCredit;
+import com.nttdata.credit.model.request.CreditRequest;
+import com.nttdata.credit.model.response.CreditResponse;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.core.io.buffer.NettyDataBuffer;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TestJsonCodec {
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new BlackbirdModule());
+
+    @Test
+    void readsCreditTypeIgnoringCase() throws Exception {
+        CreditRequest request = objectMapper.readValue("{\"type\":\"Business\"}", CreditRequest.class);
+
+        assertEquals(TypeCredit.BUSINESS, request.getType());
+        assertEquals(TypeClient.PERSONAL, TypeClient.LOOKUP.find("personal"));
+        assertNull(TypeClient.LOOKUP.find("personals"));
+    }
+
+    @Test
+    void rejectsUnknownCreditType() {
+        assertThrows(InvalidFormatException.class,
+                () -> objectMapper.readValue("{\"type\":\"mortgage\"}", CreditRequest.class));
+    }
+
+    @Test
+    void writesSameJsonIntoPooledBuffer() {
+        List<CreditResponse> credits = credits(3, 500);
+        ResolvableType listType = ResolvableType.forClassWithGenerics(List.class, CreditResponse.class);
+        DataBuffer expected = new Jackson2JsonEncoder(objectMapper).encodeValue(credits,
+                DefaultDataBufferFactory.sharedInstance, listType, MediaType.APPLICATION_JSON, Collections.emptyMap());
+
+        DataBuffer pooled = new PooledJackson2JsonEncoder(objectMapper, 256).encodeValue(credits,
+                new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT), listType, MediaType.APPLICATION_JSON,
+                Collections.emptyMap());
+
+        assertArrayEquals(bytes(expected), bytes(pooled));
+        assertEquals(1, ((NettyDataBuffer) pooled).getNativeBuffer().refCnt());
+        DataBufferUtils.release(pooled);
+    }
+
+    private static byte[] bytes(DataBuffer buffer) {
+        byte[] bytes = new byte[buffer.readableByteCount()];
+        buffer.read(bytes);
+        return bytes;
+    }
+
+    private static List<CreditResponse> credits(int count, int payments) {
+        List<CreditResponse> credits = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            CreditResponse credit = new CreditResponse();
+            credit.setId(String.valueOf(i));
+            credit.setType(TypeCredit.PERSONAL);
+            List<Payment> creditPayments = new ArrayList<>(payments);
+            for (int j = 0; j < payments; j++) {
+                creditPayments.add(new Payment("p" + j, credit.getId(), 100, new Date(0L), "new Pay"));
+            }
+            credit.setPayments(creditPayments);
+            credits.add(credit);
+        }
+        return credits;
+    }
+}
@@ -0,0 +1,201 @@
+package com.nttdata.credit.testLoad;
+
+import com.nttdata.credit.model.enums.BulkCreditStatus;
+import com.nttdata.credit.model.enums.TypeCredit;
+import com.nttdata.credit.model.request.CreditRequest;
+import com.nttdata.credit.model.request.PaymentRequest;
+import com.nttdata.credit.model.response.BulkCreditResponse;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives a mixed workload over the credit endpoints at a fixed request rate against
+ * embedded MongoDB and a stub client service, then reports throughput and latency
+ * percentiles per operation. Runs with the {@code loadtest} Maven profile, tuned with
+ * the {@code loadtest.*} system properties.
+ */
+@Tag("load-test")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.mongodb.embedded.version=4.0.21",
+        "spring.cloud.config.enabled=false",
+        "eureka.client.enabled=false"})
+class CreditLoadTest {
+    private static final int RATE = Integer.getInteger("loadtest.rate", 200);
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("loadtest.warmup-seconds", 10));
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("loadtest.duration-seconds", 60));
+    private static final Duration CLIENT_LATENCY = Duration.ofMillis(Long.getLong("loadtest.client-latency-ms", 20));
+    private static final double MAX_ERROR_RATE = Double.parseDouble(System.getProperty("loadtest.max-error-rate", "0.01"));
+    private static final int SEED_CLIENTS = 500;
+    private static final int MAX_IN_FLIGHT = 512;
+    private static final Path REPORT = Paths.get("target", "loadtest-report.txt");
+    private static final String CREDIT = "/api/v1/credit";
+
+    private static StubClientServer clientServer;
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void clientService(DynamicPropertyRegistry registry) {
+        clientServer = StubClientServer.start(CLIENT_LATENCY);
+        registry.add("server.url.client", clientServer::baseUrl);
+    }
+
+    @AfterAll
+    static void stopClientService() {
+        clientServer.stop();
+    }
+
+    @Test
+    void mixedWorkload() throws IOException {
+        WebClient webClient = WebClient.builder()
+                .baseUrl("http://localhost:" + port)
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(
+                        ConnectionProvider.builder("loadtest").maxConnections(MAX_IN_FLIGHT).build())))
+                .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer loadtest")
+                .build();
+        List<String> creditIds = seed(webClient);
+
+        run(webClient, creditIds, WARMUP, new LoadReport());
+        LoadReport report = new LoadReport();
+        Duration elapsed = run(webClient, creditIds, DURATION, report);
+
+        String summary = String.format("rate %d req/s, client latency %d ms%n", RATE, CLIENT_LATENCY.toMillis())
+                + report.summary(elapsed);
+        System.out.println(summary);
+        Files.createDirectories(REPORT.getParent());
+        Files.write(REPORT, summary.getBytes(StandardCharsets.UTF_8));
+        assertTrue(report.requests() > 0, summary);
+        assertTrue(report.errors() <= MAX_ERROR_RATE * report.requests(), summary);
+    }
+
+    /**
+     * Creates one credit for each seed business client with a single bulk request.
+     */
+    private List<String> seed(WebClient webClient) {
+        List<CreditRequest> requests = IntStream.range(0, SEED_CLIENTS)
+                .mapToObj(i -> creditRequest(TypeCredit.BUSINESS, businessClient(i)))
+                .collect(Collectors.toList());
+        List<String> creditIds = webClient.post().uri(CREDIT + "/bulk")
+                .bodyValue(requests)
+                .retrieve()
+                .bodyToFlux(BulkCreditResponse.class)
+                .filter(response -> response.getStatus() == BulkCreditStatus.CREATED)
+                .map(BulkCreditResponse::getId)
+                .collectList()
+                .block(Duration.ofMinutes(1));
+        assertTrue(creditIds != null && !creditIds.isEmpty(), "No seed credits were created");
+        return creditIds;
+    }
+
+    /**
+     * Starts one request per tick of the target rate. Ticks that find
+     * {@value #MAX_IN_FLIGHT} requests already in flight are dropped and reported.
+     */
+    private Duration run(WebClient webClient, List<String> creditIds, Duration duration, LoadReport report) {
+        long start = System.nanoTime();
+        Flux.interval(Duration.ofNanos(1_000_000_000L / RATE))
+                .take(duration)
+                .onBackpressureDrop(tick -> report.drop())
+                .flatMap(tick -> execute(webClient, creditIds, Operation.pick(), report), MAX_IN_FLIGHT)
+                .blockLast(duration.plusMinutes(1));
+        return Duration.ofNanos(System.nanoTime() - start);
+    }
+
+    private Mono<Void> execute(WebClient webClient, List<String> creditIds, Operation operation, LoadReport report) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return request(webClient, creditIds, operation)
+                    .retrieve()
+                    .toBodilessEntity()
+                    .doOnSuccess(response -> report.record(operation.name(), System.nanoTime() - start, true))
+                    .then()
+                    .onErrorResume(e -> {
+                        report.record(operation.name(), System.nanoTime() - start, false);
+                        return Mono.empty();
+                    });
+        });
+    }
+
+    private WebClient.RequestHeadersSpec<?> request(WebClient webClient, List<String> creditIds, Operation operation) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String creditId = creditIds.get(random.nextInt(creditIds.size()));
+        String clientId = businessClient(random.nextInt(SEED_CLIENTS));
+        switch (operation) {
+            case CREATE:
+                return webClient.post().uri(CREDIT).bodyValue(random.nextBoolean()
+                        ? creditRequest(TypeCredit.BUSINESS, clientId)
+                        : creditRequest(TypeCredit.PERSONAL, StubClientServer.PERSONAL_PREFIX + UUID.randomUUID()));
+            case PAY:
+                return webClient.post().uri(CREDIT + "/{id}/payment", creditId).bodyValue(new PaymentRequest(1));
+            case GET_BY_ID:
+                return webClient.get().uri(CREDIT + "/{id}", creditId);
+            case BALANCE:
+                return webClient.get().uri(CREDIT + "/{clientId}/balances", clientId);
+            case LIST_BY_CLIENT:
+                return webClient.get().uri(CREDIT + "/client/{clientId}?view=summary", clientId);
+            default:
+                return webClient.get().uri(CREDIT + "/page?size=50");
+        }
+    }
+
+    private static CreditRequest creditRequest(TypeCredit type, String clientId) {
+        Date now = new Date();
+        return new CreditRequest(type, 1_000_000, 5, now, now, 1_000_000, clientId, null);
+    }
+
+    private static String businessClient(int index) {
+        return "b-" + index;
+    }
+
+    /**
+     * Operations of the workload and their share of the requests, in percent.
+     */
+    private enum Operation {
+        CREATE(10), PAY(30), GET_BY_ID(15), BALANCE(20), LIST_BY_CLIENT(15), PAGE(10);
+
+        private final int weight;
+
+        Operation(int weight) {
+            this.weight = weight;
+        }
+
+        private static Operation pick() {
+            int roll = ThreadLocalRandom.current().nextInt(100);
+            for (Operation operation : values()) {
+                roll -= operation.weight;
+                if (roll < 0) {
+                    return operation;
+                }
+            }
+            return PAGE;
+        }
+    }
+}
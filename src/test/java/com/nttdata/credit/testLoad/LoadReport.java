@@ -0,0 +1,77 @@
+package com.nttdata.credit.testLoad;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collects the latency of every measured request by operation and summarizes
+ * throughput and exact p50/p95/p99 latencies.
+ */
+final class LoadReport {
+    private static final double[] PERCENTILES = {0.50, 0.95, 0.99};
+
+    private final Map<String, OperationStats> operations = new ConcurrentHashMap<>();
+    private final AtomicLong dropped = new AtomicLong();
+
+    void record(String operation, long latencyNanos, boolean success) {
+        OperationStats stats = operations.computeIfAbsent(operation, name -> new OperationStats());
+        stats.latencies.add(latencyNanos);
+        if (!success) {
+            stats.errors.incrementAndGet();
+        }
+    }
+
+    /**
+     * A request that was not sent on schedule because the previous ones had not been taken up yet.
+     */
+    void drop() {
+        dropped.incrementAndGet();
+    }
+
+    long requests() {
+        return operations.values().stream().mapToLong(stats -> stats.latencies.size()).sum();
+    }
+
+    long errors() {
+        return operations.values().stream().mapToLong(stats -> stats.errors.get()).sum();
+    }
+
+    String summary(Duration elapsed) {
+        double seconds = elapsed.toMillis() / 1000.0;
+        StringBuilder summary = new StringBuilder(String.format("%-16s %8s %7s %9s %9s %9s %9s%n",
+                "operation", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms"));
+        new TreeMap<>(operations).forEach((name, stats) -> {
+            List<Long> sorted = new ArrayList<>(stats.latencies);
+            Collections.sort(sorted);
+            summary.append(String.format("%-16s %8d %7d %9.1f", name, sorted.size(), stats.errors.get(),
+                    sorted.size() / seconds));
+            for (double percentile : PERCENTILES) {
+                summary.append(String.format(" %9.2f", percentile(sorted, percentile) / 1_000_000.0));
+            }
+            summary.append(System.lineSeparator());
+        });
+        summary.append(String.format("total %d requests in %.1f s, %.1f req/s, %d errors, %d dropped%n",
+                requests(), seconds, requests() / seconds, errors(), dropped.get()));
+        return summary.toString();
+    }
+
+    private static long percentile(List<Long> sorted, double percentile) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.size()) - 1;
+        return sorted.get(Math.max(0, index));
+    }
+
+    private static final class OperationStats {
+        private final ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        private final AtomicLong errors = new AtomicLong();
+    }
+}
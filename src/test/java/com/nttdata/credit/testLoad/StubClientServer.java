@@ -0,0 +1,46 @@
+package com.nttdata.credit.testLoad;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+
+/**
+ * In-process stand-in for the client service. It answers every client lookup after a
+ * fixed delay. Clients whose ID starts with {@value #PERSONAL_PREFIX} are personal,
+ * and every other client is a business.
+ */
+final class StubClientServer {
+    static final String PERSONAL_PREFIX = "p-";
+
+    private final DisposableServer server;
+
+    private StubClientServer(DisposableServer server) {
+        this.server = server;
+    }
+
+    static StubClientServer start(Duration latency) {
+        DisposableServer server = HttpServer.create()
+                .host("localhost")
+                .port(0)
+                .route(routes -> routes.get("/api/v1/client/{id}", (request, response) -> {
+                    String id = request.param("id");
+                    String type = id != null && id.startsWith(PERSONAL_PREFIX) ? "PERSONAL" : "BUSINESS";
+                    return response.header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                            .sendString(Mono.delay(latency)
+                                    .thenReturn("{\"name\":\"" + id + "\",\"type\":\"" + type + "\"}"));
+                }))
+                .bindNow();
+        return new StubClientServer(server);
+    }
+
+    String baseUrl() {
+        return "http://localhost:" + server.port();
+    }
+
+    void stop() {
+        server.disposeNow();
+    }
+}
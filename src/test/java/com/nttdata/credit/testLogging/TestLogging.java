@@ -0,0 +1,61 @@
+package com.nttdata.credit.testLogging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import com.nttdata.credit.logging.LogContext;
+import com.nttdata.credit.logging.RateSamplingTurboFilter;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class TestLogging {
+
+    @Test
+    void samplesInfoButNotWarnings() {
+        Logger logger = new LoggerContext().getLogger("com.nttdata.credit.Noisy");
+        logger.setLevel(Level.INFO);
+        RateSamplingTurboFilter filter = new RateSamplingTurboFilter();
+        filter.setLoggerPrefix("com.nttdata.credit.Noisy");
+        filter.setPermitsPerSecond(2);
+
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, logger, Level.INFO, "a", null, null));
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, logger, Level.INFO, "b", null, null));
+        assertEquals(FilterReply.DENY, filter.decide(null, logger, Level.INFO, "c", null, null));
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, logger, Level.WARN, "d", null, null));
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, logger, Level.DEBUG, "disabled", null, null));
+    }
+
+    @Test
+    void ignoresOtherLoggers() {
+        Logger logger = new LoggerContext().getLogger("com.nttdata.credit.Quiet");
+        RateSamplingTurboFilter filter = new RateSamplingTurboFilter();
+        filter.setLoggerPrefix("com.nttdata.credit.Noisy");
+        filter.setPermitsPerSecond(0);
+
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, logger, Level.INFO, "a", null, null));
+    }
+
+    @Test
+    void logsErrorsWithTheContextIds() {
+        List<Map<String, String>> logged = new ArrayList<>();
+
+        StepVerifier.create(Mono.error(new IllegalStateException("boom"))
+                        .doOnEach(LogContext.onError(e -> true, e -> logged.add(MDC.getCopyOfContextMap())))
+                        .contextWrite(LogContext.creditId("1"))
+                        .contextWrite(LogContext.requestId("request")))
+                .verifyError(IllegalStateException.class);
+
+        assertEquals(Map.of(LogContext.REQUEST_ID, "request", LogContext.CREDIT_ID, "1"), logged.get(0));
+        assertNull(MDC.get(LogContext.REQUEST_ID));
+    }
+}
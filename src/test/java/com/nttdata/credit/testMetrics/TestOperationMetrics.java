@@ -0,0 +1,63 @@
+package com.nttdata.credit.testMetrics;
+
+import com.nttdata.credit.metrics.OperationMetrics;
+import com.nttdata.credit.model.exception.CreditNotFoundException;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class TestOperationMetrics {
+    private SimpleMeterRegistry meterRegistry;
+    private OperationMetrics operationMetrics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        operationMetrics = new OperationMetrics(meterRegistry);
+    }
+
+    @Test
+    void timesEachSubscription() {
+        Mono<String> timed = operationMetrics.timed("getCreditById", Mono.just("credit"));
+
+        StepVerifier.create(timed).expectNext("credit").verifyComplete();
+        StepVerifier.create(timed.then()).verifyComplete();
+
+        assertEquals(2, timer("getCreditById", "success", "none").count());
+    }
+
+    @Test
+    void tagsErrorsWithTheException() {
+        StepVerifier.create(operationMetrics.timed("getCreditById",
+                        Mono.error(new CreditNotFoundException("Credit not found with id: 1"))))
+                .verifyError(CreditNotFoundException.class);
+
+        assertEquals(1, timer("getCreditById", "error", "CreditNotFoundException").count());
+        assertNull(meterRegistry.find(OperationMetrics.METRIC_NAME).tag("outcome", "success").timer());
+    }
+
+    @Test
+    void recordsCancelledFluxOnce() {
+        StepVerifier.create(operationMetrics.timed("getAllCredits", Flux.just("1", "2", "3")).take(1))
+                .expectNext("1")
+                .verifyComplete();
+
+        assertEquals(1, timer("getAllCredits", "cancelled", "none").count());
+        assertNull(meterRegistry.find(OperationMetrics.METRIC_NAME).tag("outcome", "success").timer());
+    }
+
+    private Timer timer(String operation, String outcome, String exception) {
+        return meterRegistry.get(OperationMetrics.METRIC_NAME)
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .tag("exception", exception)
+                .timer();
+    }
+}
@@ -0,0 +1,139 @@
+package com.nttdata.credit.testRSocket;
+
+import com.nttdata.credit.controller.CreditRSocketController;
+import com.nttdata.credit.model.enums.BulkPaymentStatus;
+import com.nttdata.credit.model.request.BulkPaymentRequest;
+import com.nttdata.credit.model.request.PaymentRequest;
+import com.nttdata.credit.model.response.BalanceResponse;
+import com.nttdata.credit.model.response.BulkPaymentResponse;
+import com.nttdata.credit.model.response.CreditResponse;
+import com.nttdata.credit.model.response.PaymentResponse;
+import com.nttdata.credit.service.CreditService;
+import io.rsocket.core.RSocketServer;
+import io.rsocket.transport.netty.server.CloseableChannel;
+import io.rsocket.transport.netty.server.TcpServerTransport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.messaging.rsocket.RSocketRequester;
+import org.springframework.messaging.rsocket.RSocketStrategies;
+import org.springframework.messaging.rsocket.annotation.support.RSocketMessageHandler;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TestRSocket {
+    private final CreditService creditService = mock(CreditService.class);
+    private CloseableChannel server;
+    private RSocketRequester requester;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        RSocketStrategies strategies = RSocketStrategies.builder()
+                .encoders(encoders -> encoders.add(new Jackson2CborEncoder()))
+                .decoders(decoders -> decoders.add(new Jackson2CborDecoder()))
+                .build();
+        RSocketMessageHandler handler = new RSocketMessageHandler();
+        handler.setHandlers(List.of(new CreditRSocketController(creditService)));
+        handler.setRSocketStrategies(strategies);
+        handler.afterPropertiesSet();
+        server = RSocketServer.create(handler.responder())
+                .bind(TcpServerTransport.create("localhost", 0))
+                .block();
+        requester = RSocketRequester.builder()
+                .rsocketStrategies(strategies)
+                .tcp("localhost", server.address().getPort());
+    }
+
+    @AfterEach
+    void tearDown() {
+        requester.dispose();
+        server.dispose();
+    }
+
+    @Test
+    void readsBalance() {
+        BalanceResponse balance = new BalanceResponse();
+        when(creditService.getBalanceByClientId("client")).thenReturn(Mono.just(balance));
+
+        StepVerifier.create(requester.route("credit.balance.{idClient}", "client").retrieveMono(BalanceResponse.class))
+                .expectNextCount(1)
+                .verifyComplete();
+    }
+
+    @Test
+    void paysCredit() {
+        when(creditService.payByCreditId(eq("1"), any(PaymentRequest.class)))
+                .thenReturn(Mono.just(new PaymentResponse(100, new Date(), "p1")));
+        PaymentRequest payment = new PaymentRequest();
+        payment.setAmount(100);
+
+        StepVerifier.create(requester.route("credit.{id}.payment", "1").data(payment)
+                        .retrieveMono(PaymentResponse.class))
+                .expectNextMatches(response -> response.getId().equals("p1"))
+                .verifyComplete();
+    }
+
+    @Test
+    void streamsPaymentsPageByPage() {
+        List<PaymentResponse> firstPage = IntStream.range(0, 100)
+                .mapToObj(i -> new PaymentResponse(1, new Date(i), "p" + i))
+                .collect(Collectors.toList());
+        when(creditService.getAllPaysByCredirId(eq("1"), isNull(), isNull(), anyInt()))
+                .thenReturn(Flux.fromIterable(firstPage));
+        when(creditService.getAllPaysByCredirId(eq("1"), eq(new Date(99)), eq("p99"), anyInt()))
+                .thenReturn(Flux.just(new PaymentResponse(1, new Date(100), "p100")));
+
+        StepVerifier.create(requester.route("credit.{id}.payments", "1").retrieveFlux(PaymentResponse.class))
+                .expectNextCount(100)
+                .expectNextMatches(payment -> payment.getId().equals("p100"))
+                .verifyComplete();
+    }
+
+    @Test
+    void stopsReadingCreditsWhenRequesterCancels() throws InterruptedException {
+        CountDownLatch cancelled = new CountDownLatch(1);
+        when(creditService.streamAllCredits()).thenReturn(Flux.interval(Duration.ofMillis(5))
+                .map(i -> new CreditResponse())
+                .doOnCancel(cancelled::countDown));
+
+        StepVerifier.create(requester.route("credits").retrieveFlux(CreditResponse.class).take(3))
+                .expectNextCount(3)
+                .verifyComplete();
+
+        assertTrue(cancelled.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void paysInBulkOverChannel() {
+        when(creditService.payInBulk(any())).thenAnswer(invocation -> {
+            Flux<BulkPaymentRequest> requests = invocation.getArgument(0);
+            return requests.index().map(request -> new BulkPaymentResponse(request.getT1(),
+                    request.getT2().getCreditId(), BulkPaymentStatus.APPLIED, "p" + request.getT1()));
+        });
+
+        StepVerifier.create(requester.route("credit.payments.bulk")
+                        .data(Flux.range(0, 3).map(i -> new BulkPaymentRequest("c" + i, 10.0)))
+                        .retrieveFlux(BulkPaymentResponse.class))
+                .expectNextCount(3)
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,171 @@
+package com.nttdata.credit.testRepository;
+
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.nttdata.credit.configuration.MongoIndexConfig;
+import com.nttdata.credit.model.entity.Credit;
+import com.nttdata.credit.model.entity.Payment;
+import com.nttdata.credit.model.enums.TypeClient;
+import com.nttdata.credit.model.enums.TypeCredit;
+import com.nttdata.credit.repository.CreditRespository;
+import com.nttdata.credit.repository.PaymentRepository;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs every repository query against an embedded MongoDB, captures the commands the
+ * driver sends, and fails if the winning plan of any of them scans the whole collection.
+ * Needs to download MongoDB, so it only runs with the {@code query-plans} Maven profile.
+ */
+@Tag("query-plan")
+@DataMongoTest(properties = "spring.mongodb.embedded.version=4.0.21")
+@Import({MongoIndexConfig.class, TestQueryPlans.CommandCapture.class})
+public class TestQueryPlans {
+    private static final Set<String> QUERY_COMMANDS = Set.of("find", "aggregate", "count", "distinct",
+            "update", "delete", "findAndModify");
+    private static final Set<String> WRITE_BATCHES = Set.of("updates", "deletes");
+
+    @Autowired
+    private CreditRespository creditRespository;
+    @Autowired
+    private PaymentRepository paymentRepository;
+    @Autowired
+    private ReactiveMongoTemplate mongoTemplate;
+    @Autowired
+    private MongoIndexConfig mongoIndexConfig;
+    @Autowired
+    private List<BsonDocument> capturedCommands;
+
+    @BeforeEach
+    void setUp() {
+        mongoIndexConfig.ensureIndexes();
+        Flux.concat(creditRespository.deleteAll(), paymentRepository.deleteAll()).blockLast();
+        Credit credit = new Credit("1", TypeCredit.PERSONAL, 1000, 5, new Date(), new Date(), 1000, "client",
+                TypeClient.PERSONAL, 0L);
+        Flux.concat(creditRespository.save(credit),
+                paymentRepository.save(new Payment("p1", "1", 100, new Date(), "Payment 1"))).blockLast();
+        capturedCommands.clear();
+    }
+
+    @Test
+    void repositoryQueriesUseIndexes() {
+        Pageable page = PageRequest.ofSize(10);
+        Flux.concat(
+                creditRespository.findById("1"),
+                creditRespository.existsById("1"),
+                creditRespository.findByClientId("client"),
+                creditRespository.existsByClientId("client"),
+                creditRespository.findBalancesByClientId("client"),
+                creditRespository.findSummariesByClientId("client"),
+                creditRespository.findByIdGreaterThan("", PageRequest.of(0, 10, Sort.by("id"))),
+                creditRespository.findClientIdsByClientIdIn(List.of("client")),
+                creditRespository.findBalancesByIdIn(List.of("1")),
+                creditRespository.decrementBalance("1", 10),
+                creditRespository.restoreBalance("1", 10),
+                creditRespository.decrementBalances(Map.of("1", 10.0), "batch"),
+                creditRespository.decrementBalances(Map.of("1", 1_000_000.0), "other"),
+                paymentRepository.findPageAfter("1", new Date(0L), page),
+                paymentRepository.findPageAfter("1", new Date(0L), "p0", page),
+                paymentRepository.findFirstByCreditIdOrderByDateDescIdDesc("1"),
+                paymentRepository.countByCreditId("1"),
+                paymentRepository.deleteByCreditId("1"),
+                creditRespository.deleteById("1")
+        ).blockLast();
+
+        List<BsonDocument> commands = new ArrayList<>(capturedCommands);
+        assertFalse(commands.isEmpty());
+        for (BsonDocument command : commands) {
+            for (BsonDocument single : singleStatements(command)) {
+                Document plan = explain(single);
+                assertFalse(plan.toJson().contains("\"COLLSCAN\""), () -> "Collection scan for " + single.toJson()
+                        + "\n" + plan.toJson());
+                assertTrue(plan.toJson().contains("winningPlan"), plan::toJson);
+            }
+        }
+    }
+
+    private Document explain(BsonDocument command) {
+        Document explain = new Document("explain", command).append("verbosity", "queryPlanner");
+        return mongoTemplate.executeCommand(explain)
+                .map(result -> result.get("queryPlanner", Document.class))
+                .switchIfEmpty(Mono.error(new IllegalStateException("No plan for " + command.toJson())))
+                .block();
+    }
+
+    /**
+     * Explain only accepts write commands with a single statement, so batches are split.
+     */
+    private List<BsonDocument> singleStatements(BsonDocument command) {
+        List<BsonDocument> statements = new ArrayList<>();
+        String batchField = command.keySet().stream().filter(WRITE_BATCHES::contains).findFirst().orElse(null);
+        if (batchField == null) {
+            statements.add(command);
+            return statements;
+        }
+        for (BsonValue statement : command.getArray(batchField)) {
+            BsonDocument single = command.clone();
+            single.put(batchField, new BsonArray(List.of(statement)));
+            statements.add(single);
+        }
+        return statements;
+    }
+
+    @TestConfiguration
+    static class CommandCapture {
+        private final List<BsonDocument> commands = new CopyOnWriteArrayList<>();
+
+        @Bean
+        List<BsonDocument> capturedCommands() {
+            return commands;
+        }
+
+        @Bean
+        MongoClientSettingsBuilderCustomizer commandCaptureCustomizer() {
+            return builder -> builder.addCommandListener(new CommandListener() {
+                @Override
+                public void commandStarted(CommandStartedEvent event) {
+                    if (QUERY_COMMANDS.contains(event.getCommandName())) {
+                        commands.add(withoutSessionFields(event.getCommand()));
+                    }
+                }
+            });
+        }
+
+        private static BsonDocument withoutSessionFields(BsonDocument command) {
+            BsonDocument copy = new BsonDocument();
+            command.forEach((key, value) -> {
+                if (!key.startsWith("$") && !key.equals("lsid") && !key.equals("txnNumber")) {
+                    copy.put(key, value);
+                }
+            });
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.nttdata.credit.testResilience;
+
+import com.nttdata.credit.model.exception.CreditServiceUnavailableException;
+import com.nttdata.credit.resilience.AdaptiveConcurrencyLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TestAdaptiveConcurrencyLimiter {
+    private SimpleMeterRegistry meterRegistry;
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        limiter = new AdaptiveConcurrencyLimiter("client", 2, 1, 4, Duration.ofSeconds(1), meterRegistry);
+    }
+
+    @Test
+    void rejectsCallsOverTheLimit() {
+        Sinks.One<String> first = Sinks.one();
+        Sinks.One<String> second = Sinks.one();
+        limiter.limit(first.asMono(), e -> false).subscribe();
+        limiter.limit(second.asMono(), e -> false).subscribe();
+
+        StepVerifier.create(limiter.limit(Mono.just("third"), e -> false))
+                .verifyError(CreditServiceUnavailableException.class);
+
+        assertEquals(2, limiter.getInFlight());
+        assertEquals(1, meterRegistry.get("credit.concurrency.rejected").counter().count());
+        first.tryEmitValue("first");
+        assertEquals(1, limiter.getInFlight());
+    }
+
+    @Test
+    void growsWhenBusyAndFast() {
+        Sinks.One<String> pending = Sinks.one();
+        limiter.limit(pending.asMono(), e -> false).subscribe();
+
+        StepVerifier.create(limiter.limit(Mono.just("fast"), e -> false)).expectNext("fast").verifyComplete();
+
+        assertEquals(3, limiter.getLimit());
+    }
+
+    @Test
+    void shrinksOnOverload() {
+        StepVerifier.create(limiter.limit(Mono.error(new TimeoutException()), TimeoutException.class::isInstance))
+                .verifyError(TimeoutException.class);
+
+        assertEquals(1, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+}
@@ -0,0 +1,150 @@
+package com.nttdata.credit.testService;
+
+import com.nttdata.credit.model.entity.Client;
+import com.nttdata.credit.model.exception.CreditForbiddenException;
+import com.nttdata.credit.model.exception.CreditUnauthorizedException;
+import com.nttdata.credit.resilience.AdaptiveConcurrencyLimiter;
+import com.nttdata.credit.service.ClientService;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TestClientService {
+    private static final Map<String, HttpStatus> TOKEN_STATUS = Map.of(
+            "expired", HttpStatus.UNAUTHORIZED, "denied", HttpStatus.FORBIDDEN);
+    private final AtomicInteger calls = new AtomicInteger();
+    private volatile HttpStatus upstreamStatus = HttpStatus.OK;
+    private SimpleMeterRegistry meterRegistry;
+    private ClientService clientService;
+
+    @BeforeEach
+    void setUp() {
+        clientService = clientService(Duration.ofMinutes(1));
+    }
+
+    private ClientService clientService(Duration freshFor) {
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    calls.incrementAndGet();
+                    HttpStatus status = TOKEN_STATUS.getOrDefault(
+                            request.headers().getFirst(HttpHeaders.AUTHORIZATION), upstreamStatus);
+                    return Mono.delay(Duration.ofMillis(50)).map(tick -> ClientResponse.create(status)
+                            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .body("{\"name\":\"Ana\",\"type\":\"PERSONAL\"}")
+                            .build());
+                })
+                .build();
+        meterRegistry = new SimpleMeterRegistry();
+        return new ClientService(webClient, meterRegistry, 100, freshFor, Duration.ofHours(1),
+                Bulkhead.ofDefaults("client"), new AdaptiveConcurrencyLimiter("client", 20, 4, 64,
+                        Duration.ofSeconds(1), meterRegistry), Duration.ofSeconds(2));
+    }
+
+    @Test
+    void concurrentLookupsShareOneCall() {
+        StepVerifier.create(Flux.range(0, 10)
+                        .flatMap(i -> clientService.getClientById("1", "token"))
+                        .map(Client::getType))
+                .expectNextCount(10)
+                .verifyComplete();
+
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void cancelledLookupDoesNotFailOthers() {
+        Disposable cancelled = clientService.getClientById("1", "token").subscribe();
+
+        StepVerifier.create(clientService.getClientById("1", "token"))
+                .then(cancelled::dispose)
+                .expectNextMatches(client -> client.getType().equals("PERSONAL"))
+                .verifyComplete();
+
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void cachedClientIsServedWithoutCall() {
+        StepVerifier.create(clientService.getClientById("1", "token")
+                        .then(clientService.getClientById("1", "token")))
+                .expectNextMatches(client -> client.getType().equals("PERSONAL"))
+                .verifyComplete();
+
+        assertEquals(1, calls.get());
+        assertEquals(1, clientService.getCacheStats().hitCount());
+        assertEquals(1, clientService.getCacheStats().missCount());
+    }
+
+    @Test
+    void cachedClientIsNotServedToAnotherToken() {
+        StepVerifier.create(clientService.getClientById("1", "token")).expectNextCount(1).verifyComplete();
+
+        StepVerifier.create(clientService.getClientById("1", "denied"))
+                .expectError(CreditForbiddenException.class)
+                .verify();
+        StepVerifier.create(clientService.getClientById("1", "other")).expectNextCount(1).verifyComplete();
+
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void rejectedCredentialsAreUnauthorized() {
+        StepVerifier.create(clientService.getClientById("1", "expired"))
+                .expectErrorMatches(e -> e instanceof CreditUnauthorizedException
+                        && ((CreditUnauthorizedException) e).getStatus() == HttpStatus.UNAUTHORIZED)
+                .verify();
+    }
+
+    @Test
+    void staleClientIsServedWhileRefreshing() {
+        ClientService staleService = clientService(Duration.ofMillis(100));
+        StepVerifier.create(staleService.getClientById("1", "token")
+                .delayElement(Duration.ofMillis(150))).expectNextCount(1).verifyComplete();
+
+        StepVerifier.create(staleService.getClientById("1", "token")).expectNextCount(1).verifyComplete();
+
+        assertEquals(1, meterRegistry.get("credit.client-cache.stale").counter().count());
+        await(() -> meterRegistry.get("credit.client-cache.refresh").tag("outcome", "success").counter().count() == 1);
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void staleClientIsServedWhenClientServiceIsDown() {
+        ClientService staleService = clientService(Duration.ofMillis(100));
+        StepVerifier.create(staleService.getClientById("1", "token")
+                .delayElement(Duration.ofMillis(150))).expectNextCount(1).verifyComplete();
+        upstreamStatus = HttpStatus.SERVICE_UNAVAILABLE;
+
+        StepVerifier.create(staleService.getClientById("1", "token"))
+                .expectNextMatches(client -> client.getType().equals("PERSONAL"))
+                .verifyComplete();
+        await(() -> meterRegistry.get("credit.client-cache.refresh").tag("outcome", "failure").counter().count() == 1);
+
+        StepVerifier.create(staleService.getClientById("1", "token")).expectNextCount(1).verifyComplete();
+    }
+
+    private static void await(BooleanSupplier condition) {
+        StepVerifier.create(Mono.fromSupplier(condition::getAsBoolean)
+                        .filter(Boolean::booleanValue)
+                        .repeatWhenEmpty(ticks -> ticks.delayElements(Duration.ofMillis(10)).take(200)))
+                .expectNext(true)
+                .verifyComplete();
+    }
+}
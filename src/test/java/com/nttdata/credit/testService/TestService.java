@@ -1,35 +1,82 @@
 package com.nttdata.credit.testService;
 
-import com.nttdata.credit.model.entity.Balance;
+import com.mongodb.bulk.BulkWriteError;
+import com.nttdata.credit.model.entity.Client;
 import com.nttdata.credit.model.entity.Credit;
 import com.nttdata.credit.model.entity.Payment;
+import com.nttdata.credit.model.enums.BulkCreditStatus;
+import com.nttdata.credit.model.enums.BulkPaymentStatus;
+import com.nttdata.credit.model.enums.TypeClient;
 import com.nttdata.credit.model.enums.TypeCredit;
+import com.nttdata.credit.model.exception.CreditConflictException;
+import com.nttdata.credit.model.exception.CreditNotFoundException;
+import com.nttdata.credit.model.exception.CreditPreconditionFailedException;
+import com.nttdata.credit.model.exception.InvalidCreditDataException;
+import com.nttdata.credit.model.exception.PaymentDataException;
+import com.nttdata.credit.model.request.BulkPaymentRequest;
+import com.nttdata.credit.model.request.CreditPatchRequest;
 import com.nttdata.credit.model.request.CreditRequest;
+import com.nttdata.credit.model.request.PaymentRequest;
 import com.nttdata.credit.model.response.BalanceResponse;
+import com.nttdata.credit.model.response.BulkCreditResponse;
+import com.nttdata.credit.model.response.BulkPaymentResponse;
 import com.nttdata.credit.model.response.CreditResponse;
+import com.nttdata.credit.model.response.CreditSummary;
 import com.nttdata.credit.model.response.PaymentResponse;
 import com.nttdata.credit.repository.CreditRespository;
+import com.nttdata.credit.repository.PaymentRepository;
+import com.nttdata.credit.service.ClientService;
+import com.nttdata.credit.service.impl.CreditReadCache;
 import com.nttdata.credit.service.impl.CreditServiceImpl;
+import com.nttdata.credit.service.impl.PaymentBatchProcessor;
+import com.nttdata.credit.strategy.ValidationStrategy;
+import com.nttdata.credit.util.PageTokenConverter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.Document;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.Disposable;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 import reactor.test.StepVerifier;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
-
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static com.nttdata.credit.util.constats.ConstantsMessage.CREDIT_NOT_FOUND;
+import static com.nttdata.credit.util.constats.ConstantsMessage.PERSONAL_CLIENT_ONE_CREDIT;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 public class TestService {
     @Mock
     private CreditRespository creditRepository;
+    @Mock
+    private PaymentRepository paymentRepository;
+    @Mock
+    private ClientService clientService;
+    @Spy
+    private CreditReadCache creditReadCache = new CreditReadCache(new SimpleMeterRegistry(), false, 0, Duration.ZERO);
     @InjectMocks
     private CreditServiceImpl creditService;
     private Credit credit;
@@ -61,13 +108,36 @@ public class TestService {
         when(creditRepository.findAll()).thenReturn(Flux.error(new RuntimeException("Error")));
 
         StepVerifier.create(creditService.getAllCredits())
-                .expectErrorMatches(throwable -> throwable instanceof Exception &&
-                        throwable.getMessage().equals("Error fetching all Credits"))
+                .expectErrorMatches(throwable -> throwable instanceof RuntimeException &&
+                        throwable.getMessage().equals("Error"))
                 .verify();
 
         verify(creditRepository, times(1)).findAll();
     }
 
+    @Test
+    void getCreditsPageWithNextToken() {
+        Credit second = new Credit();
+        second.setId("2");
+        when(creditRepository.findByIdGreaterThan(eq(""), any(Pageable.class))).thenReturn(Flux.just(credit, second));
+
+        StepVerifier.create(creditService.getCreditsPage(null, 1))
+                .expectNextMatches(page -> page.getContent().size() == 1
+                        && PageTokenConverter.toLastId(page.getNextToken()).equals("1"))
+                .verifyComplete();
+
+        verify(creditRepository).findByIdGreaterThan(eq(""), eq(PageRequest.of(0, 2, Sort.by("id"))));
+    }
+
+    @Test
+    void getCreditsPageLastPage() {
+        when(creditRepository.findByIdGreaterThan(eq("1"), any(Pageable.class))).thenReturn(Flux.just(credit));
+
+        StepVerifier.create(creditService.getCreditsPage(PageTokenConverter.toToken("1"), 10))
+                .expectNextMatches(page -> page.getContent().size() == 1 && page.getNextToken() == null)
+                .verifyComplete();
+    }
+
     @Test
     void getCreditByIdSuccess() {
         when(creditRepository.findById("1")).thenReturn(Mono.just(credit));
@@ -84,8 +154,8 @@ public class TestService {
         when(creditRepository.findById("1")).thenReturn(Mono.error(new RuntimeException("Database error")));
 
         StepVerifier.create(creditService.getCreditById("1"))
-                .expectErrorMatches(throwable -> throwable instanceof Exception &&
-                        throwable.getMessage().equals("Error fetching Credit by id"))
+                .expectErrorMatches(throwable -> throwable instanceof RuntimeException &&
+                        throwable.getMessage().equals("Database error"))
                 .verify();
 
         verify(creditRepository, times(1)).findById("1");
@@ -93,53 +163,190 @@ public class TestService {
 
 
     @Test
-    void updateCreditSuccess() {
+    void getCreditByIdCollapsesConcurrentLookups() {
+        CreditServiceImpl cachedService = new CreditServiceImpl(creditRepository, paymentRepository, clientService,
+                null, null, new CreditReadCache(new SimpleMeterRegistry(), true, 100, Duration.ofMinutes(1)));
+        when(creditRepository.findById("1")).thenReturn(Mono.just(credit).delayElement(Duration.ofMillis(50)));
+
+        StepVerifier.create(Flux.range(0, 10).flatMap(i -> cachedService.getCreditById("1")))
+                .expectNextCount(10)
+                .verifyComplete();
+        StepVerifier.create(cachedService.getCreditById("1")).expectNextCount(1).verifyComplete();
+
+        verify(creditRepository, times(1)).findById("1");
+    }
+
+    @Test
+    void getCreditByIdCancelledLookupDoesNotFailOthers() {
+        CreditServiceImpl cachedService = new CreditServiceImpl(creditRepository, paymentRepository, clientService,
+                null, null, new CreditReadCache(new SimpleMeterRegistry(), true, 100, Duration.ofMinutes(1)));
+        when(creditRepository.findById("1")).thenReturn(Mono.just(credit).delayElement(Duration.ofMillis(50)));
+        Disposable cancelled = cachedService.getCreditById("1").subscribe();
+
+        StepVerifier.create(cachedService.getCreditById("1"))
+                .then(cancelled::dispose)
+                .expectNextCount(1)
+                .verifyComplete();
+
+        verify(creditRepository, times(1)).findById("1");
+    }
+
+    @Test
+    void updateCreditInvalidatesCachedCredit() {
+        CreditServiceImpl cachedService = new CreditServiceImpl(creditRepository, paymentRepository, clientService,
+                null, null, new CreditReadCache(new SimpleMeterRegistry(), true, 100, Duration.ofMinutes(1)));
         when(creditRepository.findById("1")).thenReturn(Mono.just(credit));
-        when(creditRepository.save(any(Credit.class))).thenReturn(Mono.just(credit));
+        when(creditRepository.updateVersioned(eq("1"), any(Update.class), isNull())).thenReturn(Mono.just(credit));
 
-        StepVerifier.create(creditService.updateCredit("1", creditRequest))
+        StepVerifier.create(cachedService.getCreditById("1")
+                        .then(cachedService.updateCredit("1", creditRequest, null))
+                        .then(cachedService.getCreditById("1")))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        verify(creditRepository, times(2)).findById("1");
+    }
+
+    @Test
+    void updateCreditSuccess() {
+        when(creditRepository.updateVersioned(eq("1"), any(Update.class), isNull())).thenReturn(Mono.just(credit));
+
+        StepVerifier.create(creditService.updateCredit("1", creditRequest, null))
                 .expectNextMatches(creditResponse -> creditResponse != null)
                 .verifyComplete();
 
-        verify(creditRepository, times(1)).findById("1");
-        verify(creditRepository, times(1)).save(any(Credit.class));
+        verify(creditRepository, never()).findById("1");
+        verify(creditRepository, never()).save(any(Credit.class));
     }
 
     @Test
     void updateCreditError() {
-        when(creditRepository.findById("1")).thenReturn(Mono.empty());
+        when(creditRepository.updateVersioned(eq("1"), any(Update.class), isNull())).thenReturn(Mono.empty());
 
-        StepVerifier.create(creditService.updateCredit("1", creditRequest))
-                .expectErrorMatches(throwable -> throwable instanceof Exception &&
-                        throwable.getMessage().equals("Error updating Credit"))
+        StepVerifier.create(creditService.updateCredit("1", creditRequest, null))
+                .expectErrorMatches(throwable -> throwable instanceof CreditNotFoundException &&
+                        throwable.getMessage().equals(CREDIT_NOT_FOUND + "1"))
                 .verify();
+    }
 
-        verify(creditRepository, times(1)).findById("1");
+    @Test
+    void patchCreditSetsOnlyGivenFields() {
+        CreditPatchRequest patch = new CreditPatchRequest();
+        patch.setAmount(500.0);
+        credit.setVersion(4L);
+        when(creditRepository.updateVersioned(eq("1"), any(Update.class), eq(3L))).thenReturn(Mono.just(credit));
+
+        StepVerifier.create(creditService.patchCredit("1", patch, 3L))
+                .expectNextMatches(creditResponse -> creditResponse.getVersion() == 4L)
+                .verifyComplete();
+
+        verify(creditRepository).updateVersioned(eq("1"),
+                argThat(update -> update.getUpdateObject().get("$set", Document.class).keySet()
+                        .equals(Set.of("amount"))),
+                eq(3L));
+    }
+
+    @Test
+    void patchCreditVersionMismatch() {
+        CreditPatchRequest patch = new CreditPatchRequest();
+        patch.setAmount(500.0);
+        when(creditRepository.updateVersioned(eq("1"), any(Update.class), eq(3L))).thenReturn(Mono.empty());
+        when(creditRepository.existsById("1")).thenReturn(Mono.just(true));
+
+        StepVerifier.create(creditService.patchCredit("1", patch, 3L))
+                .expectError(CreditPreconditionFailedException.class)
+                .verify();
+    }
+
+    @Test
+    void patchCreditWithoutFields() {
+        StepVerifier.create(creditService.patchCredit("1", new CreditPatchRequest(), null))
+                .expectError(InvalidCreditDataException.class)
+                .verify();
+
+        verifyNoInteractions(creditRepository);
     }
 
     @Test
     void deleteCreditSuccess() {
-        when(creditRepository.findById("1")).thenReturn(Mono.just(credit));
-        when(creditRepository.delete(credit)).thenReturn(Mono.empty());
+        when(creditRepository.deleteVersioned("1", null)).thenReturn(Mono.just(true));
+        when(paymentRepository.deleteByCreditId("1")).thenReturn(Mono.empty());
 
-        StepVerifier.create(creditService.deleteCredit("1"))
+        StepVerifier.create(creditService.deleteCredit("1", null))
                 .verifyComplete();
 
-        verify(creditRepository, times(1)).findById("1");
-        verify(creditRepository, times(1)).delete(credit);
+        verify(creditRepository, never()).findById("1");
+        verify(paymentRepository, times(1)).deleteByCreditId("1");
+    }
+
+    @Test
+    void deleteCreditNotFound() {
+        when(creditRepository.deleteVersioned("1", null)).thenReturn(Mono.just(false));
+
+        StepVerifier.create(creditService.deleteCredit("1", null))
+                .expectError(CreditNotFoundException.class)
+                .verify();
+
+        verify(paymentRepository, never()).deleteByCreditId("1");
     }
 
     @Test
     void deleteCreditError() {
-        when(creditRepository.findById("1")).thenReturn(Mono.error(new RuntimeException("Database error")));
+        when(creditRepository.deleteVersioned("1", null)).thenReturn(Mono.error(new RuntimeException("Database error")));
 
-        StepVerifier.create(creditService.deleteCredit("1"))
-                .expectErrorMatches(throwable -> throwable instanceof Exception &&
-                        throwable.getMessage().equals("Error deleting Credit"))
+        StepVerifier.create(creditService.deleteCredit("1", null))
+                .expectErrorMatches(throwable -> throwable instanceof RuntimeException &&
+                        throwable.getMessage().equals("Database error"))
                 .verify();
+    }
+    @Test
+    void getCreditETagReadsVersion() {
+        credit.setVersion(7L);
+        when(creditRepository.findVersionById("1")).thenReturn(Mono.just(credit));
 
-        verify(creditRepository, times(1)).findById("1");
+        StepVerifier.create(creditService.getCreditETag("1"))
+                .expectNext("W/\"7\"")
+                .verifyComplete();
+
+        verify(creditRepository, never()).findById("1");
     }
+
+    @Test
+    void getPaymentsETagChangesOnlyOncePaymentIsRecorded() {
+        List<Payment> stored = new CopyOnWriteArrayList<>(List.of(new Payment("p1", "1", 50, new Date(1000L), "Pay")));
+        Sinks.Empty<Void> released = Sinks.empty();
+        when(paymentRepository.findFirstByCreditIdOrderByDateDescIdDesc("1"))
+                .thenAnswer(invocation -> Mono.just(stored.get(stored.size() - 1)));
+        when(paymentRepository.countByCreditId("1")).thenAnswer(invocation -> Mono.just((long) stored.size()));
+        when(creditRepository.decrementBalance("1", 100)).thenReturn(Mono.just(credit));
+        when(paymentRepository.save(any(Payment.class))).thenAnswer(invocation -> released.asMono()
+                .thenReturn(invocation.<Payment>getArgument(0))
+                .doOnNext(stored::add));
+        String before = creditService.getPaymentsETag("1").block();
+
+        StepVerifier.create(creditService.payByCreditId("1", new PaymentRequest(100)))
+                .then(() -> assertEquals(before, creditService.getPaymentsETag("1").block()))
+                .then(released::tryEmitEmpty)
+                .expectNextCount(1)
+                .verifyComplete();
+
+        assertNotEquals(before, creditService.getPaymentsETag("1").block());
+    }
+
+    @Test
+    void getBalanceETagChangesWithAnyCredit() {
+        Credit second = new Credit();
+        second.setId("2");
+        when(creditRepository.findVersionsByClientId("client"))
+                .thenReturn(Flux.just(credit, second), Flux.just(credit), Flux.empty());
+
+        String both = creditService.getBalanceETag("client").block();
+        String one = creditService.getBalanceETag("client").block();
+
+        assertNotEquals(both, one);
+        StepVerifier.create(creditService.getBalanceETag("client")).verifyComplete();
+    }
+
     @Test
     public void testGetBalanceByClientIdSuccess() {
         String idClient = "clientId";
@@ -147,27 +354,29 @@ public class TestService {
         Credit credit = new Credit();
         credit.setClientId(idClient);
         credit.setOutstandingBalance(100);
+        Credit other = new Credit();
+        other.setClientId(idClient);
+        other.setOutstandingBalance(250);
 
-        BalanceResponse balanceResponse = new BalanceResponse();
-        balanceResponse.setClientId(idClient);
-        balanceResponse.setBalances(Collections.singletonList(new Balance(idClient, 100, new Date())));
+        when(creditRepository.findBalancesByClientId(idClient)).thenReturn(Flux.just(credit, other));
 
-        when(creditRepository.findByClientId(idClient)).thenReturn(Flux.just(credit));
-
-        Flux<BalanceResponse> result = creditService.getBalanceByClientId(idClient);
+        Mono<BalanceResponse> result = creditService.getBalanceByClientId(idClient);
 
         StepVerifier.create(result)
-                .expectNextMatches(response -> response != null && response.getClientId().equals(idClient))
+                .expectNextMatches(response -> response.getClientId().equals(idClient)
+                        && response.getBalances().size() == 2
+                        && response.getTotalBalance() == 350)
                 .verifyComplete();
+        verify(creditRepository, never()).findByClientId(idClient);
     }
 
     @Test
     public void testGetBalanceByClientIdCreditNotFound() {
         String idClient = "clientId";
 
-        when(creditRepository.findByClientId(idClient)).thenReturn(Flux.empty());
+        when(creditRepository.findBalancesByClientId(idClient)).thenReturn(Flux.empty());
 
-        Flux<BalanceResponse> result = creditService.getBalanceByClientId(idClient);
+        Mono<BalanceResponse> result = creditService.getBalanceByClientId(idClient);
 
         StepVerifier.create(result)
                 .expectError(Exception.class)
@@ -205,22 +414,297 @@ public class TestService {
                 .verify();
     }
     @Test
+    public void testGetCreditSummariesByClientIdSuccess() {
+        String idClient = "clientId";
+        CreditSummary summary = new CreditSummary("1", TypeCredit.PERSONAL, 1000, 500, new Date(), idClient);
+
+        when(creditRepository.findSummariesByClientId(idClient)).thenReturn(Flux.just(summary));
+
+        StepVerifier.create(creditService.getCreditSummariesByClientId(idClient))
+                .expectNextMatches(response -> response.getClientId().equals(idClient)
+                        && response.getOutstandingBalance() == 500)
+                .verifyComplete();
+        verify(creditRepository, never()).findByClientId(idClient);
+    }
+
+    @Test
+    public void testGetCreditSummariesByClientIdCreditNotFound() {
+        String idClient = "clientId";
+
+        when(creditRepository.findSummariesByClientId(idClient)).thenReturn(Flux.empty());
+
+        StepVerifier.create(creditService.getCreditSummariesByClientId(idClient))
+                .expectError(Exception.class)
+                .verify();
+    }
+    @Test
     void testGetAllPaysByCredirIdSuccess() {
         String creditId = "123";
         Payment payment1 = new Payment(100, new Date(), "Payment 1");
         Payment payment2 = new Payment(200, new Date(), "Payment 2");
-        Credit credit = new Credit();
-        credit.setPayments(Arrays.asList(payment1, payment2));
 
-        when(creditRepository.findById(creditId)).thenReturn(Mono.just(credit));
+        when(paymentRepository.findPageAfter(eq(creditId), any(Date.class), any(Pageable.class)))
+                .thenReturn(Flux.just(payment1, payment2));
 
-        Flux<PaymentResponse> result = creditService.getAllPaysByCredirId(creditId);
+        Flux<PaymentResponse> result = creditService.getAllPaysByCredirId(creditId, null, null, 100);
 
         StepVerifier.create(result)
                 .expectNextMatches(response -> response.getAmount() == 100)
                 .expectNextMatches(response -> response.getAmount() == 200)
                 .verifyComplete();
 
-        verify(creditRepository).findById(creditId);
+        verify(paymentRepository).findPageAfter(eq(creditId), eq(new Date(0L)), eq(Pageable.ofSize(100)));
+    }
+
+    @Test
+    void testGetAllPaysByCredirIdNextPage() {
+        String creditId = "123";
+        Date after = new Date();
+        Payment payment = new Payment("p2", creditId, 300, after, "Payment 3");
+        when(paymentRepository.findPageAfter(eq(creditId), eq(after), eq("p1"), any(Pageable.class)))
+                .thenReturn(Flux.just(payment));
+
+        StepVerifier.create(creditService.getAllPaysByCredirId(creditId, after, "p1", 5000))
+                .expectNextMatches(response -> response.getId().equals("p2") && response.getDate().equals(after))
+                .verifyComplete();
+
+        verify(paymentRepository).findPageAfter(eq(creditId), eq(after), eq("p1"), eq(Pageable.ofSize(1000)));
+    }
+    @Test
+    void payByCreditIdSuccess() {
+        credit.setOutstandingBalance(400);
+        when(creditRepository.decrementBalance("1", 100)).thenReturn(Mono.just(credit));
+        when(paymentRepository.save(any(Payment.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+        StepVerifier.create(creditService.payByCreditId("1", new PaymentRequest(100)))
+                .expectNextMatches(response -> response.getAmount() == 100)
+                .verifyComplete();
+
+        verify(creditRepository, times(1)).decrementBalance("1", 100);
+        verify(paymentRepository, times(1)).save(argThat(payment -> "1".equals(payment.getCreditId())));
+        verify(creditRepository, never()).save(any(Credit.class));
+    }
+
+    @Test
+    void payByCreditIdRestoresBalanceWhenPaymentIsNotSaved() {
+        when(creditRepository.decrementBalance("1", 100)).thenReturn(Mono.just(credit));
+        when(paymentRepository.save(any(Payment.class))).thenReturn(Mono.error(new RuntimeException("Database error")));
+        when(creditRepository.restoreBalance("1", 100)).thenReturn(Mono.just(credit));
+
+        StepVerifier.create(creditService.payByCreditId("1", new PaymentRequest(100)))
+                .expectError(Exception.class)
+                .verify();
+
+        verify(creditRepository, times(1)).restoreBalance("1", 100);
+    }
+
+    @Test
+    void payByCreditIdFinishesPaymentWhenCancelled() {
+        Sinks.One<Payment> saved = Sinks.one();
+        when(creditRepository.decrementBalance("1", 100)).thenReturn(Mono.just(credit));
+        when(paymentRepository.save(any(Payment.class))).thenReturn(saved.asMono());
+        when(creditRepository.restoreBalance("1", 100)).thenReturn(Mono.just(credit));
+
+        StepVerifier.create(creditService.payByCreditId("1", new PaymentRequest(100)))
+                .thenCancel()
+                .verify();
+        saved.tryEmitError(new RuntimeException("Database error"));
+
+        verify(paymentRepository, times(1)).save(any(Payment.class));
+        verify(creditRepository, times(1)).restoreBalance("1", 100);
+    }
+
+    @Test
+    void payByCreditIdExceedsBalance() {
+        when(creditRepository.decrementBalance(eq("1"), anyDouble())).thenReturn(Mono.empty());
+        when(creditRepository.existsById("1")).thenReturn(Mono.just(true));
+
+        StepVerifier.create(creditService.payByCreditId("1", new PaymentRequest(500)))
+                .expectErrorMatches(throwable -> throwable instanceof PaymentDataException)
+                .verify();
+    }
+
+    @Test
+    void payByCreditIdNotFound() {
+        when(creditRepository.decrementBalance(eq("1"), anyDouble())).thenReturn(Mono.empty());
+        when(creditRepository.existsById("1")).thenReturn(Mono.just(false));
+
+        StepVerifier.create(creditService.payByCreditId("1", new PaymentRequest(100)))
+                .expectErrorMatches(throwable -> throwable instanceof CreditNotFoundException
+                        && throwable.getMessage().equals(CREDIT_NOT_FOUND + "1"))
+                .verify();
+    }
+
+    @Test
+    void createCreditsInBulk() {
+        CreditServiceImpl bulkService = new CreditServiceImpl(creditRepository, paymentRepository, clientService,
+                new ValidationStrategy(creditRepository), null, creditReadCache);
+        List<CreditRequest> requests = Arrays.asList(
+                new CreditRequest(TypeCredit.PERSONAL, 1000, 5, new Date(), new Date(), 1000, "personal", null),
+                new CreditRequest(TypeCredit.PERSONAL, 1000, 5, new Date(), new Date(), 1000, "personal", null),
+                new CreditRequest(TypeCredit.BUSINESS, 1000, 5, new Date(), new Date(), 1000, "business", null),
+                new CreditRequest(TypeCredit.PERSONAL, 1000, 5, new Date(), new Date(), 1000, "taken", null));
+        Client personal = new Client();
+        personal.setType("PERSONAL");
+        Client business = new Client();
+        business.setType("BUSINESS");
+        Credit existing = new Credit();
+        existing.setClientId("taken");
+        when(clientService.getClientById("personal", "token")).thenReturn(Mono.just(personal));
+        when(clientService.getClientById("taken", "token")).thenReturn(Mono.just(personal));
+        when(clientService.getClientById("business", "token")).thenReturn(Mono.just(business));
+        when(creditRepository.findClientIdsByClientIdIn(anyCollection())).thenReturn(Flux.just(existing));
+        when(creditRepository.insertAllUnordered(anyList())).thenReturn(Mono.just(Collections.emptyMap()));
+
+        StepVerifier.create(bulkService.createCredits(requests, "token").map(BulkCreditResponse::getStatus))
+                .expectNext(BulkCreditStatus.CREATED, BulkCreditStatus.REJECTED,
+                        BulkCreditStatus.CREATED, BulkCreditStatus.REJECTED)
+                .verifyComplete();
+
+        verify(clientService, times(1)).getClientById("personal", "token");
+        verify(creditRepository, times(1)).findClientIdsByClientIdIn(anyCollection());
+        verify(creditRepository, times(1)).insertAllUnordered(argThat(credits -> credits.size() == 2));
+        verify(creditRepository, never()).save(any(Credit.class));
+    }
+
+    @Test
+    void createCreditPersonalClientWithCredit() {
+        CreditServiceImpl createService = new CreditServiceImpl(creditRepository, paymentRepository, clientService,
+                new ValidationStrategy(creditRepository), null, creditReadCache);
+        Client personal = new Client();
+        personal.setType("PERSONAL");
+        when(clientService.getClientById("client", "token")).thenReturn(Mono.just(personal));
+        when(creditRepository.existsByClientId("client")).thenReturn(Mono.just(true));
+
+        StepVerifier.create(createService.createCredit(new CreditRequest(TypeCredit.PERSONAL, 1000, 5, new Date(),
+                        new Date(), 1000, "client", null), "token"))
+                .expectErrorMatches(throwable -> throwable instanceof CreditConflictException
+                        && throwable.getMessage().equals(PERSONAL_CLIENT_ONE_CREDIT))
+                .verify();
+
+        verify(creditRepository, never()).findByClientId("client");
+        verify(creditRepository, never()).save(any(Credit.class));
+    }
+
+    @Test
+    void createCreditPersonalClientConcurrentCreate() {
+        CreditServiceImpl createService = new CreditServiceImpl(creditRepository, paymentRepository, clientService,
+                new ValidationStrategy(creditRepository), null, creditReadCache);
+        Client personal = new Client();
+        personal.setType("PERSONAL");
+        when(clientService.getClientById("client", "token")).thenReturn(Mono.just(personal));
+        when(creditRepository.existsByClientId("client")).thenReturn(Mono.just(false));
+        when(creditRepository.save(any(Credit.class))).thenReturn(Mono.error(new DuplicateKeyException("E11000")));
+
+        StepVerifier.create(createService.createCredit(new CreditRequest(TypeCredit.PERSONAL, 1000, 5, new Date(),
+                        new Date(), 1000, "client", null), "token"))
+                .expectErrorMatches(throwable -> throwable instanceof CreditConflictException
+                        && throwable.getMessage().equals(PERSONAL_CLIENT_ONE_CREDIT))
+                .verify();
+
+        verify(creditRepository, times(1)).save(argThat(saved -> saved.getClientType() == TypeClient.PERSONAL));
+    }
+
+    @Test
+    void payInBulk() {
+        CreditServiceImpl bulkService = new CreditServiceImpl(creditRepository, paymentRepository, clientService,
+                null, new PaymentBatchProcessor(creditRepository, paymentRepository, 10), creditReadCache);
+        credit.setOutstandingBalance(150);
+        when(creditRepository.findBalancesByIdIn(Set.of("1", "missing"))).thenReturn(Flux.just(credit));
+        when(creditRepository.decrementBalances(eq(Map.of("1", 100.0)), anyString())).thenReturn(Mono.just(Set.of("1")));
+        when(paymentRepository.insertAllUnordered(anyList())).thenReturn(Mono.just(Collections.emptyMap()));
+
+        Flux<BulkPaymentRequest> requests = Flux.just(new BulkPaymentRequest("1", 100),
+                new BulkPaymentRequest("1", 100), new BulkPaymentRequest("missing", 10), new BulkPaymentRequest(null, 10));
+        StepVerifier.create(bulkService.payInBulk(requests).map(BulkPaymentResponse::getStatus))
+                .expectNext(BulkPaymentStatus.APPLIED, BulkPaymentStatus.OVERPAYMENT,
+                        BulkPaymentStatus.NOT_FOUND, BulkPaymentStatus.INVALID)
+                .verifyComplete();
+
+        verify(creditRepository, never()).decrementBalance(anyString(), anyDouble());
+    }
+
+    @Test
+    void payInBulkRetriesCreditsChangedConcurrently() {
+        PaymentBatchProcessor processor = new PaymentBatchProcessor(creditRepository, paymentRepository, 10);
+        credit.setOutstandingBalance(150);
+        when(creditRepository.findBalancesByIdIn(Set.of("1"))).thenReturn(Flux.just(credit));
+        when(creditRepository.decrementBalances(eq(Map.of("1", 100.0)), anyString())).thenReturn(Mono.just(Set.of()));
+        when(creditRepository.decrementBalance("1", 100)).thenReturn(Mono.empty());
+        when(creditRepository.existsById("1")).thenReturn(Mono.just(true));
+
+        StepVerifier.create(processor.process(Flux.just(new BulkPaymentRequest("1", 100))))
+                .expectNextMatches(response -> response.getStatus() == BulkPaymentStatus.OVERPAYMENT
+                        && response.getPaymentId() == null)
+                .verifyComplete();
+
+        verify(paymentRepository, never()).insertAllUnordered(anyList());
+    }
+
+    @Test
+    void payInBulkRestoresOnlyPaymentsNotStored() {
+        PaymentBatchProcessor processor = new PaymentBatchProcessor(creditRepository, paymentRepository, 10);
+        Credit other = new Credit();
+        other.setId("2");
+        other.setOutstandingBalance(150);
+        credit.setOutstandingBalance(150);
+        when(creditRepository.findBalancesByIdIn(Set.of("1", "2"))).thenReturn(Flux.just(credit, other));
+        when(creditRepository.decrementBalances(eq(Map.of("1", 100.0, "2", 50.0)), anyString()))
+                .thenReturn(Mono.just(Set.of("1", "2")));
+        when(paymentRepository.insertAllUnordered(anyList()))
+                .thenReturn(Mono.just(Map.of(1, new BulkWriteError(11000, "E11000", new BsonDocument(), 1))));
+        when(creditRepository.restoreBalance("2", 50.0)).thenReturn(Mono.just(other));
+
+        StepVerifier.create(processor.process(Flux.just(new BulkPaymentRequest("1", 100),
+                        new BulkPaymentRequest("2", 50))))
+                .expectNextMatches(response -> response.getStatus() == BulkPaymentStatus.APPLIED
+                        && response.getPaymentId() != null)
+                .expectNextMatches(response -> response.getStatus() == BulkPaymentStatus.FAILED
+                        && response.getPaymentId() == null)
+                .verifyComplete();
+
+        verify(creditRepository, times(1)).restoreBalance("2", 50.0);
+        verify(creditRepository, never()).restoreBalance(eq("1"), anyDouble());
+    }
+
+    @Test
+    void payInBulkFinishesChunkWhenCancelled() {
+        PaymentBatchProcessor processor = new PaymentBatchProcessor(creditRepository, paymentRepository, 10);
+        Sinks.One<Map<Integer, BulkWriteError>> inserted = Sinks.one();
+        credit.setOutstandingBalance(150);
+        when(creditRepository.findBalancesByIdIn(Set.of("1"))).thenReturn(Flux.just(credit));
+        when(creditRepository.decrementBalances(eq(Map.of("1", 100.0)), anyString())).thenReturn(Mono.just(Set.of("1")));
+        when(paymentRepository.insertAllUnordered(anyList())).thenReturn(inserted.asMono());
+        when(creditRepository.restoreBalance("1", 100.0)).thenReturn(Mono.just(credit));
+
+        StepVerifier.create(processor.process(Flux.just(new BulkPaymentRequest("1", 100))))
+                .then(() -> verify(creditRepository, times(1)).decrementBalances(anyMap(), anyString()))
+                .thenCancel()
+                .verify();
+        inserted.tryEmitValue(Map.of(0, new BulkWriteError(11000, "E11000", new BsonDocument(), 0)));
+
+        verify(paymentRepository, times(1)).insertAllUnordered(anyList());
+        verify(creditRepository, times(1)).restoreBalance("1", 100.0);
+    }
+
+    @Test
+    void payInBulkChecksStoredPaymentsWhenInsertFails() {
+        PaymentBatchProcessor processor = new PaymentBatchProcessor(creditRepository, paymentRepository, 10);
+        credit.setOutstandingBalance(150);
+        when(creditRepository.findBalancesByIdIn(Set.of("1"))).thenReturn(Flux.just(credit));
+        when(creditRepository.decrementBalances(eq(Map.of("1", 100.0)), anyString())).thenReturn(Mono.just(Set.of("1")));
+        when(paymentRepository.insertAllUnordered(anyList())).thenReturn(Mono.error(new RuntimeException("timeout")));
+        when(paymentRepository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            Iterable<String> ids = invocation.getArgument(0);
+            return Flux.just(new Payment(ids.iterator().next(), "1", 50, new Date(), "bulk Pay"));
+        });
+        when(creditRepository.restoreBalance("1", 50.0)).thenReturn(Mono.just(credit));
+
+        StepVerifier.create(processor.process(Flux.just(new BulkPaymentRequest("1", 50), new BulkPaymentRequest("1", 50))))
+                .expectNextMatches(response -> response.getStatus() == BulkPaymentStatus.APPLIED)
+                .expectNextMatches(response -> response.getStatus() == BulkPaymentStatus.FAILED)
+                .verifyComplete();
+
+        verify(creditRepository, times(1)).restoreBalance("1", 50.0);
     }
 }
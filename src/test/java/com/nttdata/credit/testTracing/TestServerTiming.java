@@ -0,0 +1,57 @@
+package com.nttdata.credit.testTracing;
+
+import com.nttdata.credit.tracing.RequestTiming;
+import com.nttdata.credit.tracing.ServerTimingFilter;
+import com.nttdata.credit.tracing.Span;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TestServerTiming {
+
+    @Test
+    void reportsStagesInHeaderAndSpans() throws InterruptedException {
+        List<Span> exported = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+        ServerTimingFilter filter = new ServerTimingFilter(spans -> {
+            exported.addAll(spans);
+            done.countDown();
+        });
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/credit/1"));
+        exchange.getResponse().getHeaders().set("X-Request-Id", "request");
+
+        StepVerifier.create(filter.filter(exchange, filtered -> RequestTiming.stage("client",
+                                Mono.delay(Duration.ofMillis(20)))
+                        .then(filtered.getResponse().writeWith(Mono.just(DefaultDataBufferFactory.sharedInstance
+                                .wrap("{}".getBytes(StandardCharsets.UTF_8)))))))
+                .verifyComplete();
+
+        String serverTiming = exchange.getResponse().getHeaders().getFirst(ServerTimingFilter.SERVER_TIMING_HEADER);
+        assertTrue(serverTiming.matches("client;dur=\\d+\\.\\d, encode;dur=\\d+\\.\\d, total;dur=\\d+\\.\\d"),
+                serverTiming);
+        assertTrue(done.await(1, TimeUnit.SECONDS));
+        assertEquals(2, exported.size());
+        assertEquals("request", exported.get(0).getTraceId());
+        assertTrue(exported.get(0).getDurationNanos() >= Duration.ofMillis(20).toNanos());
+    }
+
+    @Test
+    void stagesOutsideRequestAreNotTimed() {
+        StepVerifier.create(RequestTiming.stage("client", Mono.just("client")))
+                .expectNext("client")
+                .verifyComplete();
+    }
+}